@@ -3,23 +3,44 @@ package Utils;
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.util.Base64;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 // Utility class for AES encryption and decryption
 // This class provides methods to encrypt and decrypt strings using AES algorithm with a secret key.
 // It uses AES in ECB mode with PKCS5 padding.
 // Note: ECB mode is not recommended for sensitive data due to its security vulnerabilities.
+// Cipher instances are reused per thread and keys per secret, so the JCE provider lookup happens once per thread.
 public final class AESUtils {
     // Constant for AES algorithm with ECB mode and PKCS5 padding
     private static final String AES_ALGORITHM = "AES/ECB/PKCS5Padding";
 
+    // A Cipher is not thread-safe, so each thread keeps its own; init() resets it before every use
+    private static final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(AES_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES is not available: " + AES_ALGORITHM, e);
+        }
+    });
+
+    // Key specs by secret; a run only ever uses a handful of secrets
+    private static final Map<String, SecretKeySpec> keys = new ConcurrentHashMap<>();
+
     // Private constructor to prevent instantiation of this utility class
     private AESUtils() {
     }
 
-    // Generates a SecretKeySpec from the provided secret string.
+    // Returns the SecretKeySpec for the provided secret string, building it on first use.
     private static SecretKeySpec getSecretKey(String secret) {
+        return keys.computeIfAbsent(secret, AESUtils::createSecretKey);
+    }
+
+    // Generates a SecretKeySpec from the provided secret string.
+    private static SecretKeySpec createSecretKey(String secret) {
         // Ensure the secret key is exactly 16 bytes long by truncating or padding with zeros
         byte[] keyBytes = Arrays.copyOf(secret.getBytes(StandardCharsets.UTF_8), 16);
         // Create a SecretKeySpec using the key bytes and specify the AES algorithm
@@ -30,8 +51,8 @@ public final class AESUtils {
     public static String encrypt(String data, String secretKey) throws Exception {
         // Generate a SecretKeySpec from the provided secret key
         SecretKeySpec key = getSecretKey(secretKey);
-        // Create a Cipher instance for AES encryption
-        Cipher cipher = Cipher.getInstance(AES_ALGORITHM);
+        // Reuse this thread's Cipher instance for AES encryption
+        Cipher cipher = ciphers.get();
         // Initialize the cipher in encryption mode with the secret key
         cipher.init(Cipher.ENCRYPT_MODE, key);
         // Convert the input string to bytes and encrypt it
@@ -44,8 +65,8 @@ public final class AESUtils {
     public static String decrypt(String encryptedData, String secretKey) throws Exception {
         // Generate a SecretKeySpec from the provided secret key
         SecretKeySpec key = getSecretKey(secretKey);
-        // Create a Cipher instance for AES decryption
-        Cipher cipher = Cipher.getInstance(AES_ALGORITHM);
+        // Reuse this thread's Cipher instance for AES decryption
+        Cipher cipher = ciphers.get();
         // Initialize the cipher in decryption mode with the secret key
         cipher.init(Cipher.DECRYPT_MODE, key);
         // Decode the Base64 encoded string to get the encrypted bytes
@@ -1,99 +1,263 @@
 package Utils;
 
 import java.io.*;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 // Thread-safe configuration manager for reading and writing key-value pairs from configuration files.
+// Reads never block: they are served from an immutable snapshot that writers replace atomically. Writes update
+// the snapshot immediately and are flushed to disk in the background, several writes coalesced into one file rewrite.
 public final class ConfigReaderWriter {
     // Path to the configuration file
-    private static final String CONFIG_PATH = "src/test/resources/config.properties";
+    private static final Path CONFIG_PATH = Paths.get("src/test/resources/config.properties");
 
-    // Properties object to hold loaded key-value pairs
-    private static final Properties properties = new Properties();
+    // Immutable view of the current key-value pairs, replaced as a whole on every change
+    private static volatile Map<String, String> snapshot = Map.of();
 
-    // Lock to ensure thread-safe access to properties
-    private static final ReentrantLock lock = new ReentrantLock();
+    // Values set in memory but not yet written to disk; a reload from disk must not lose them
+    private static final Map<String, String> pendingWrites = new HashMap<>();
+
+    // Serializes writers (and reloads) against each other; readers never take it
+    private static final ReentrantLock writeLock = new ReentrantLock();
+
+    // Held while the file itself is being rewritten
+    private static final Object fileLock = new Object();
+
+    // Single background thread that writes the file and, when enabled, watches it for external edits
+    private static final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable ->
+            Thread.ofPlatform().name("config-writer").daemon().unstarted(runnable));
+
+    // Whether a flush is already scheduled; guarded by writeLock
+    private static boolean flushScheduled;
+
+    // How long writes are collected before the file is rewritten once for all of them
+    private static final long FLUSH_DELAY_MS;
 
     // Static initializer to load the properties file once on class load
     static {
         // Load properties from the configuration file
         loadProperties();
+        FLUSH_DELAY_MS = getIntPropKey("config.flush.delay.ms", 200);
+        // Writes still pending when the JVM exits are flushed on the way out
+        Runtime.getRuntime().addShutdownHook(new Thread(ConfigReaderWriter::flush, "config-flush"));
+        // Opt-in hot reload when config.properties is edited while tests run
+        if (getBooleanPropKey("config.watch", false)) {
+            startWatching();
+        }
     }
 
     // Private constructor to prevent instantiation
     private ConfigReaderWriter() {
     }
 
-    // Loads properties from the configuration file in a thread-safe manner.
+    // Loads properties from the configuration file and publishes them as the new snapshot.
     private static void loadProperties() {
         // Ensure thread safety while loading properties
-        lock.lock();
-        // Initialize the properties object
-        try (FileInputStream fis = new FileInputStream(CONFIG_PATH)) {
-            // Load properties from the specified file
-            properties.load(fis);
+        writeLock.lock();
+        try {
+            Map<String, String> loaded = readFile();
+            // Local writes that have not reached the file yet take precedence over what is on disk
+            loaded.putAll(pendingWrites);
+            if (!loaded.equals(snapshot)) {
+                snapshot = Map.copyOf(loaded);
+            }
+        } finally {
+            // Release the lock after loading properties
+            writeLock.unlock();
+        }
+    }
 
+    // Reads config.properties into a mutable map
+    private static Map<String, String> readFile() {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(CONFIG_PATH)) {
+            // Load properties from the specified file
+            properties.load(in);
         } // Catch any IO exceptions that may occur during file operations
         catch (IOException e) {
             // Wrap the IOException in a custom exception for better error handling
             throw new ConfigurationException("Failed to load config.properties", e);
-        }// Ensure the lock is released even if an exception occurs
-        finally {
-            // Release the lock after loading properties
-            lock.unlock();
         }
+        Map<String, String> values = new HashMap<>(properties.size() * 2);
+        properties.forEach((key, value) -> values.put((String) key, (String) value));
+        return values;
     }
 
     // Retrieves the plain value of a configuration property by key.
     public static String getPropKey(String key) {
-        // Ensure thread-safe access to properties
-        lock.lock();
-        // Check if the key exists in the properties
-        try {
-            //
-            return properties.getProperty(key);
+        // A single volatile read; the snapshot itself is never modified
+        return snapshot.get(key);
+    }
+
+    // Retrieves a property, letting a JVM system property (-Dkey=value) override the file value.
+    public static String getPropKey(String key, String defaultValue) {
+        // System properties win so CI jobs can tune a run without editing config.properties
+        String value = System.getProperty(key);
+        // Fall back to the configuration file when no override is given
+        if (value == null || value.isBlank()) {
+            value = getPropKey(key);
         }
-        //
-        finally {
-            //
-            lock.unlock();
+        // Use the default when the key is configured nowhere
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    // Retrieves an integer property with system property override and default value.
+    public static int getIntPropKey(String key, int defaultValue) {
+        String value = getPropKey(key, null);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Property is not a valid integer: " + key + "=" + value, e);
         }
     }
 
+    // Retrieves a boolean property with system property override and default value.
+    public static boolean getBooleanPropKey(String key, boolean defaultValue) {
+        String value = getPropKey(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
     //Retrieves and decrypts the value of an encrypted configuration property.
+    // Decrypted once per run by SecretsProvider, which also honours environment overrides (db.password -> DB_PASSWORD).
     public static String getDecryptedPropKey(String key, String secretKey) {
 
-        String encryptedValue = getPropKey(key);
-
         try {
 
-            return AESUtils.decrypt(encryptedValue, secretKey);
+            return SecretsProvider.get(key, secretKey);
 
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
 
             throw new ConfigurationException("Failed to decrypt property: " + key, e);
         }
     }
 
     // Sets a configuration property by key with a plain value.
+    // The new value is visible to readers at once; the file is rewritten shortly after, in the background.
     public static void setPropKey(String key, String value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("Configuration keys and values cannot be null");
+        }
+        writeLock.lock();
+        try {
+            // Copy-on-write: build the next snapshot and publish it in one volatile write
+            Map<String, String> next = new HashMap<>(snapshot);
+            next.put(key, value);
+            snapshot = Map.copyOf(next);
+            pendingWrites.put(key, value);
+            // One flush serves every write made before it runs
+            if (!flushScheduled) {
+                flushScheduled = true;
+                writer.schedule(() -> {
+                    try {
+                        flush();
+                    } catch (ConfigurationException e) {
+                        // The values stay pending; the next write or the shutdown hook tries again
+                        System.err.println(e.getMessage() + ": " + e.getCause());
+                    }
+                }, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
 
-        lock.lock();
-
-        try (FileOutputStream fos = new FileOutputStream(CONFIG_PATH)) {
-
-            properties.setProperty(key, value);
+    // Writes pending changes to config.properties now; called by the background writer and on JVM exit.
+    public static void flush() {
+        // The background thread and the shutdown hook never write at the same time, so a newer snapshot
+        // cannot be overwritten by an older one
+        synchronized (fileLock) {
+            Map<String, String> written;
+            Map<String, String> flushed;
+            writeLock.lock();
+            try {
+                flushScheduled = false;
+                if (pendingWrites.isEmpty()) {
+                    return;
+                }
+                written = snapshot;
+                flushed = Map.copyOf(pendingWrites);
+            } finally {
+                writeLock.unlock();
+            }
+            writeFile(written);
+            // Only now is the file up to date; writes made meanwhile stay pending for the next flush
+            writeLock.lock();
+            try {
+                flushed.forEach(pendingWrites::remove);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
 
-            properties.store(fos, "Updated configuration");
+    // Writes the values to a temporary file next to config.properties and renames it over the original,
+    // so the file is never seen half-written
+    private static void writeFile(Map<String, String> values) {
+        Properties properties = new Properties();
+        properties.putAll(values);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(CONFIG_PATH.toAbsolutePath().getParent(), "config", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Updated configuration");
+            }
+            try {
+                Files.move(temp, CONFIG_PATH, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // Some file systems cannot rename atomically; a plain replace is still better than truncating in place
+                Files.move(temp, CONFIG_PATH, StandardCopyOption.REPLACE_EXISTING);
+            }
         } catch (IOException e) {
-
             throw new ConfigurationException("Failed to update config.properties", e);
-
         } finally {
-            //
-            lock.unlock();
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Nothing useful to do about a stray temporary file
+                }
+            }
+        }
+    }
+
+    // Reloads config.properties whenever it changes on disk, on the background thread
+    private static void startWatching() {
+        Path directory = CONFIG_PATH.toAbsolutePath().getParent();
+        Path fileName = CONFIG_PATH.getFileName();
+        WatchService watchService;
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            // The atomic rename shows up as a create, an in-place edit as a modify
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new ConfigurationException("Failed to watch config.properties", e);
         }
+        Thread.ofPlatform().name("config-watcher").daemon().start(() -> {
+            while (true) {
+                WatchKey watchKey;
+                try {
+                    watchKey = watchService.take();
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    return;
+                }
+                boolean changed = watchKey.pollEvents().stream().anyMatch(event -> fileName.equals(event.context()));
+                watchKey.reset();
+                if (changed) {
+                    try {
+                        loadProperties();
+                    } catch (ConfigurationException e) {
+                        // Editors may save in several steps; keep the current snapshot until the file reads cleanly
+                        System.err.println("Config reload skipped: " + e.getCause());
+                    }
+                }
+            }
+        });
     }
 
     // Sets a configuration property by key with an encrypted value using AES encryption.
@@ -135,4 +299,4 @@ public final class ConfigReaderWriter {
     public static void clearTestData(String key) {
         setPropKey("testdata." + key, ""); // Or use properties.remove() if available
     }
-}
\ No newline at end of file
+}
@@ -1,61 +1,114 @@
 package Utils;
 
 import java.sql.*;
-import java.util.Properties;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
-// Utility class for managing database connections
+// Utility class for managing database connections.
+// Connections come from a bounded pool and are leased per thread: the first database call on a thread borrows
+// a connection, and every later call on that thread (including commit/rollback) uses the same one until
+// release() hands it back. Each pooled connection caches its prepared statements by SQL text.
 public final class DBConnection {
-    // Singleton pattern to ensure only one connection instance exists
-    private static volatile Connection connection;
     // Database connection parameters read from configuration
-    private static final String DB_URL = ConfigReaderWriter.getPropKey("db.url");
+    private static final String DB_URL = ConfigReaderWriter.getPropKey("db.url", null);
     // Database user name read from configuration
-    private static final String DB_USER = ConfigReaderWriter.getPropKey("db.user");
+    private static final String DB_USER = ConfigReaderWriter.getPropKey("db.user", null);
     // Encrypted database password and secret key for decryption
     private static final String ENCRYPTED_PASSWORD = ConfigReaderWriter.getPropKey("db.password");
     // Secret key used for decrypting the database password
     private static final String SECRET_KEY = ConfigReaderWriter.getPropKey("db.secret");
 
+    // Pool sizing and statement cache settings, overridable with -D system properties
+    private static final int MAX_POOL_SIZE = ConfigReaderWriter.getIntPropKey("db.pool.max.size", 10);
+    private static final int BORROW_TIMEOUT_MS = ConfigReaderWriter.getIntPropKey("db.pool.borrow.timeout.ms", 30000);
+    private static final int STATEMENT_CACHE_SIZE = ConfigReaderWriter.getIntPropKey("db.statement.cache.size", 64);
+    // Upper bound for opening a physical connection, so an unreachable server fails fast instead of hanging
+    private static final int LOGIN_TIMEOUT_SECONDS = ConfigReaderWriter.getIntPropKey("db.login.timeout.seconds", 5);
+    // Rows fetched per round trip when streaming query results
+    private static final int FETCH_SIZE = ConfigReaderWriter.getIntPropKey("db.fetch.size", 500);
+    // Connections idle longer than this are validated before being handed out again
+    private static final long VALIDATE_AFTER_IDLE_MS = 5000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long ABANDONED_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    // Pool state, guarded by POOL_LOCK
+    private static final ReentrantLock POOL_LOCK = new ReentrantLock();
+    private static final Condition CONNECTION_RETURNED = POOL_LOCK.newCondition();
+    // Most recently returned first, so the warmest connections are reused
+    private static final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+    // Leased connections and the thread holding each one
+    private static final Map<PooledConnection, Thread> leasedConnections = new IdentityHashMap<>();
+    private static int openConnections;
+    // Bumped by closeConnection() so leases from before the close are dropped instead of returned
+    private static int poolGeneration;
+
+    // The connection leased by the current thread
+    private static final ThreadLocal<PooledConnection> currentLease = new ThreadLocal<>();
+
+    // Usage counters for logs
+    private static final LongAdder connectionsCreated = new LongAdder();
+    private static final LongAdder connectionsReused = new LongAdder();
+    private static final LongAdder statementsPrepared = new LongAdder();
+    private static final LongAdder statementsReused = new LongAdder();
+
     // Private constructor to prevent instantiation
     private DBConnection() {
     }
 
-    // Retrieves a database connection, creating it if it doesn't already exist
-    public static Connection getConnection() throws SQLException {
-        // Check if the connection is null or closed, and create a new one if necessary
-        if (connection == null || connection.isClosed()) {
-            // Synchronize on the class to ensure thread safety when creating the connection
-            synchronized (DBConnection.class) {
-                // Double-check if the connection is still null or closed after acquiring the lock
-                if (connection == null || connection.isClosed()) {
-                    // Decrypt the password using the secret key
-                    String decryptedPassword = ConfigReaderWriter.getDecryptedPropKey("db.password", SECRET_KEY);
-                    // Load the JDBC driver (optional, depending on your JDBC version)
-                    Properties props = new Properties();
-                    // Set the user and decrypted password in properties
-                    props.put("user", DB_USER);
-                    props.put("password", decryptedPassword);
-                    // Establish the connection to the database
-                    connection = DriverManager.getConnection(DB_URL, props);
-                    // Set auto-commit to false for transaction control
-                    connection.setAutoCommit(false); // Enable transaction control
-                }
-            }
+    // Maps the current row of a ResultSet to an object
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet resultSet) throws SQLException;
+
+        // Called once per query before the first row; mappers that look columns up by label return a mapper
+        // bound to this result set's columns, so the lookup is not repeated for every row
+        default RowMapper<T> bind(ResultSetMetaData metaData) throws SQLException {
+            return this;
         }
-        // Return the established connection
-        return connection;
     }
 
-    // Closes the database connection if it is open
+    // Retrieves the current thread's database connection, leasing one from the pool if it has none
+    public static Connection getConnection() throws SQLException {
+        return lease().connection;
+    }
+
+    // Returns the current thread's connection to the pool, rolling back anything left uncommitted
+    public static void release() {
+        PooledConnection lease = currentLease.get();
+        // Nothing to do if the thread never touched the database
+        if (lease == null) return;
+        currentLease.remove();
+        returnToPool(lease);
+    }
+
+    // Closes every pooled connection; the pool reopens lazily on the next call
     public static void closeConnection() {
-        // Check if the connection is not null and is open before attempting to close it
-        if (connection != null) {
-            // Attempt to close the connection
+        List<PooledConnection> toClose = new ArrayList<>();
+        POOL_LOCK.lock();
+        try {
+            // Leases held by other threads become stale and are closed instead of returned
+            poolGeneration++;
+            toClose.addAll(idleConnections);
+            toClose.addAll(leasedConnections.keySet());
+            idleConnections.clear();
+            leasedConnections.clear();
+            openConnections = 0;
+            CONNECTION_RETURNED.signalAll();
+        } finally {
+            POOL_LOCK.unlock();
+        }
+        currentLease.remove();
+        // Close outside the lock; closing the connection also closes its cached statements
+        for (PooledConnection pooled : toClose) {
             try {
                 // Check if the connection is not already closed
-                if (!connection.isClosed()) {
+                if (!pooled.connection.isClosed()) {
                     // Close the connection
-                    connection.close();
+                    pooled.connection.close();
                 }
             }
             // Catch any SQL exceptions that may occur during closing
@@ -66,25 +119,27 @@ public final class DBConnection {
         }
     }
 
-    // Commits the current transaction
+    // Commits the current thread's transaction
     public static void commit() throws SQLException {
-        // Check if the connection is not null and auto-commit is disabled
-        if (connection != null && !connection.getAutoCommit()) {
+        PooledConnection lease = currentLease.get();
+        // Check if the thread holds a connection and auto-commit is disabled
+        if (lease != null && !lease.connection.getAutoCommit()) {
             // Commit the current transaction
-            connection.commit();
+            lease.connection.commit();
         }
     }
 
-    // Rolls back the current transaction if auto-commit is disabled
+    // Rolls back the current thread's transaction if auto-commit is disabled
     public static void rollback() {
-        // Check if the connection is not null
-        if (connection != null) {
+        PooledConnection lease = currentLease.get();
+        // Check if the thread holds a connection
+        if (lease != null) {
             // Attempt to roll back the transaction
             try {
                 // Check if auto-commit is disabled before rolling back
-                if (!connection.getAutoCommit()) {
+                if (!lease.connection.getAutoCommit()) {
                     // Roll back the current transaction
-                    connection.rollback();
+                    lease.connection.rollback();
                 }
                 // Catch any SQL exceptions that may occur during rollback
             } catch (SQLException e) {
@@ -94,19 +149,347 @@ public final class DBConnection {
         }
     }
 
-    // Executes a SQL query and returns a ResultSet
+    // Executes a SQL query and returns a ResultSet.
+    // The statement is cached, so the ResultSet stays open until the same SQL runs again on this connection;
+    // prefer query(), which closes it for you.
     public static ResultSet executeQuery(String sql) throws SQLException {
-        // Get a connection to the database
-        Connection conn = getConnection();
-        // Create a statement and execute the query
-        return conn.createStatement().executeQuery(sql);
+        return prepare(sql, new Object[0]).executeQuery();
     }
 
     // Executes a SQL update (INSERT, UPDATE, DELETE) and returns the number of affected rows
     public static int executeUpdate(String sql) throws SQLException {
-        // Get a connection to the database
-        Connection conn = getConnection();
-        // Create a statement and execute the update
-        return conn.createStatement().executeUpdate(sql);
+        return update(sql);
+    }
+
+    // Runs a parameterized query and maps every row; the ResultSet is closed before returning
+    public static <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        PreparedStatement statement = prepare(sql, params);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            RowMapper<T> bound = mapper.bind(resultSet.getMetaData());
+            List<T> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                rows.add(bound.map(resultSet));
+            }
+            return rows;
+        }
+    }
+
+    // Runs a parameterized query and maps the first row, or returns null when there is none
+    public static <T> T queryFirst(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        PreparedStatement statement = prepare(sql, params);
+        statement.setMaxRows(1);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? mapper.map(resultSet) : null;
+        } finally {
+            statement.setMaxRows(0);
+        }
+    }
+
+    // Streams the rows of a parameterized query to the action without buffering them; returns the row count.
+    // Rows are fetched from the server fetchSize at a time.
+    public static <T> long forEachRow(String sql, int fetchSize, RowMapper<T> mapper, Consumer<? super T> action,
+                                      Object... params) throws SQLException {
+        PreparedStatement statement = prepare(sql, params);
+        statement.setFetchSize(fetchSize);
+        long rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            RowMapper<T> bound = mapper.bind(resultSet.getMetaData());
+            while (resultSet.next()) {
+                action.accept(bound.map(resultSet));
+                rows++;
+            }
+        } finally {
+            statement.setFetchSize(0);
+        }
+        return rows;
+    }
+
+    // Same as forEachRow with the configured db.fetch.size
+    public static <T> long forEachRow(String sql, RowMapper<T> mapper, Consumer<? super T> action, Object... params)
+            throws SQLException {
+        return forEachRow(sql, FETCH_SIZE, mapper, action, params);
+    }
+
+    // Runs a parameterized INSERT, UPDATE or DELETE and returns the number of affected rows
+    public static int update(String sql, Object... params) throws SQLException {
+        return prepare(sql, params).executeUpdate();
+    }
+
+    // Runs the same parameterized statement once per parameter set in a single JDBC batch
+    public static int[] batchUpdate(String sql, List<Object[]> paramSets) throws SQLException {
+        PreparedStatement statement = lease().prepare(sql);
+        try {
+            for (Object[] params : paramSets) {
+                bind(statement, params);
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        } finally {
+            statement.clearBatch();
+        }
+    }
+
+    // One-line summary of pool usage for logs
+    public static String describeUsage() {
+        POOL_LOCK.lock();
+        try {
+            return String.format("%d open (%d idle, %d leased), %d created, %d reused; statements %d prepared, %d reused",
+                    openConnections, idleConnections.size(), leasedConnections.size(), connectionsCreated.sum(),
+                    connectionsReused.sum(), statementsPrepared.sum(), statementsReused.sum());
+        } finally {
+            POOL_LOCK.unlock();
+        }
+    }
+
+    // Gets the cached statement for the SQL with its parameters bound
+    private static PreparedStatement prepare(String sql, Object[] params) throws SQLException {
+        PreparedStatement statement = lease().prepare(sql);
+        bind(statement, params);
+        return statement;
+    }
+
+    // Binds parameters by position, replacing any left from the previous use of the statement
+    private static void bind(PreparedStatement statement, Object[] params) throws SQLException {
+        statement.clearParameters();
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+    }
+
+    // Returns the current thread's lease, borrowing a connection if it has none or its connection died
+    private static PooledConnection lease() throws SQLException {
+        PooledConnection lease = currentLease.get();
+        if (lease != null) {
+            if (lease.generation == currentGeneration() && !lease.connection.isClosed()) {
+                return lease;
+            }
+            // Closed by closeConnection() or by the server; drop it and lease a fresh one
+            currentLease.remove();
+            discard(lease);
+        }
+        lease = borrow();
+        currentLease.set(lease);
+        return lease;
+    }
+
+    // Takes an idle connection, opens a new one below the pool size, or waits for one to be returned
+    private static PooledConnection borrow() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BORROW_TIMEOUT_MS);
+        while (true) {
+            PooledConnection candidate;
+            int generation;
+            POOL_LOCK.lock();
+            try {
+                generation = poolGeneration;
+                candidate = idleConnections.pollFirst();
+                if (candidate == null) {
+                    if (openConnections < MAX_POOL_SIZE) {
+                        // Reserve the slot; the connection is opened outside the lock
+                        openConnections++;
+                    } else if (reclaimAbandonedLeases() == 0) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            throw new SQLTransientConnectionException("Timed out after " + BORROW_TIMEOUT_MS
+                                    + " ms waiting for a database connection (" + MAX_POOL_SIZE + " in use)");
+                        }
+                        // Wake up periodically to reclaim leases of threads that ended meanwhile
+                        CONNECTION_RETURNED.awaitNanos(Math.min(remaining, ABANDONED_CHECK_NANOS));
+                        continue;
+                    } else {
+                        continue;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Restore the interrupt flag and give up
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            } finally {
+                POOL_LOCK.unlock();
+            }
+
+            if (candidate == null) {
+                return registerLease(openPooledConnection(generation));
+            }
+            // Validate connections that sat idle long enough for the server or network to drop them
+            if (System.currentTimeMillis() - candidate.lastReturned < VALIDATE_AFTER_IDLE_MS
+                    || candidate.connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                connectionsReused.increment();
+                return registerLease(candidate);
+            }
+            discard(candidate);
+        }
+    }
+
+    // Opens a physical connection for a reserved pool slot
+    private static PooledConnection openPooledConnection(int generation) throws SQLException {
+        try {
+            // Decrypt the password using the secret key
+            String decryptedPassword = ConfigReaderWriter.getDecryptedPropKey("db.password", SECRET_KEY);
+            // Set the user and decrypted password in properties
+            Properties props = new Properties();
+            props.put("user", DB_USER);
+            props.put("password", decryptedPassword);
+            // Standard JDBC login timeout; the SQL Server driver falls back to it when no loginTimeout is in the URL
+            DriverManager.setLoginTimeout(LOGIN_TIMEOUT_SECONDS);
+            // Establish the connection to the database
+            Connection connection = DriverManager.getConnection(DB_URL, props);
+            // Set auto-commit to false for transaction control
+            connection.setAutoCommit(false);
+            connectionsCreated.increment();
+            return new PooledConnection(connection, generation);
+        } catch (SQLException | RuntimeException e) {
+            // Give the reserved slot back
+            releaseSlot(generation);
+            throw e;
+        }
+    }
+
+    private static PooledConnection registerLease(PooledConnection pooled) {
+        POOL_LOCK.lock();
+        try {
+            leasedConnections.put(pooled, Thread.currentThread());
+        } finally {
+            POOL_LOCK.unlock();
+        }
+        return pooled;
+    }
+
+    // Rolls back uncommitted work and makes the connection available again
+    private static void returnToPool(PooledConnection pooled) {
+        try {
+            if (!pooled.connection.isClosed() && !pooled.connection.getAutoCommit()) {
+                pooled.connection.rollback();
+            }
+        } catch (SQLException e) {
+            // A connection that cannot roll back is not safe to reuse
+            System.err.println("Discarding database connection after failed rollback: " + e.getMessage());
+            discard(pooled);
+            return;
+        }
+        POOL_LOCK.lock();
+        try {
+            if (pooled.generation != poolGeneration || pooled.connection.isClosed()) {
+                // Stale or dead connections are not pooled again
+                discardLocked(pooled);
+                return;
+            }
+            leasedConnections.remove(pooled);
+            pooled.lastReturned = System.currentTimeMillis();
+            idleConnections.addFirst(pooled);
+            CONNECTION_RETURNED.signal();
+        } catch (SQLException e) {
+            discardLocked(pooled);
+        } finally {
+            POOL_LOCK.unlock();
+        }
+    }
+
+    // Closes a connection and frees its pool slot
+    private static void discard(PooledConnection pooled) {
+        POOL_LOCK.lock();
+        try {
+            discardLocked(pooled);
+        } finally {
+            POOL_LOCK.unlock();
+        }
+    }
+
+    private static void discardLocked(PooledConnection pooled) {
+        leasedConnections.remove(pooled);
+        idleConnections.remove(pooled);
+        // Connections from before closeConnection() no longer hold a slot
+        if (pooled.generation == poolGeneration) {
+            openConnections--;
+            CONNECTION_RETURNED.signal();
+        }
+        try {
+            pooled.connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing database connection: " + e.getMessage());
+        }
+    }
+
+    private static void releaseSlot(int generation) {
+        POOL_LOCK.lock();
+        try {
+            if (generation == poolGeneration) {
+                openConnections--;
+                CONNECTION_RETURNED.signal();
+            }
+        } finally {
+            POOL_LOCK.unlock();
+        }
+    }
+
+    // Returns connections leased by threads that ended without release(), e.g. virtual threads
+    private static int reclaimAbandonedLeases() {
+        int reclaimed = 0;
+        Iterator<Map.Entry<PooledConnection, Thread>> leases = leasedConnections.entrySet().iterator();
+        while (leases.hasNext()) {
+            Map.Entry<PooledConnection, Thread> lease = leases.next();
+            if (lease.getValue().isAlive()) continue;
+            PooledConnection pooled = lease.getKey();
+            leases.remove();
+            try {
+                // The owner is gone, so its uncommitted work is abandoned
+                pooled.connection.rollback();
+                pooled.lastReturned = 0; // force validation on the next borrow
+                idleConnections.addLast(pooled);
+            } catch (SQLException e) {
+                openConnections--;
+                try {
+                    pooled.connection.close();
+                } catch (SQLException ignored) {
+                    // Already unusable
+                }
+            }
+            reclaimed++;
+        }
+        return reclaimed;
+    }
+
+    private static int currentGeneration() {
+        POOL_LOCK.lock();
+        try {
+            return poolGeneration;
+        } finally {
+            POOL_LOCK.unlock();
+        }
+    }
+
+    // A physical connection with its LRU cache of prepared statements; only used by the leasing thread
+    private static final class PooledConnection {
+        final Connection connection;
+        final int generation;
+        long lastReturned = System.currentTimeMillis();
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= STATEMENT_CACHE_SIZE) return false;
+                try {
+                    eldest.getValue().close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing cached statement: " + e.getMessage());
+                }
+                return true;
+            }
+        };
+
+        PooledConnection(Connection connection, int generation) {
+            this.connection = connection;
+            this.generation = generation;
+        }
+
+        PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement != null && !statement.isClosed()) {
+                statementsReused.increment();
+                return statement;
+            }
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+            statementsPrepared.increment();
+            return statement;
+        }
     }
-}
\ No newline at end of file
+}
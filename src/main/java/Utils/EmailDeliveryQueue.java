@@ -0,0 +1,174 @@
+package Utils;
+
+import jakarta.mail.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// Delivers email on a background thread so callers (report generation in tearDownSuite) never wait on SMTP.
+// One connected Transport is reused for every message queued while it is open; messages waiting together are sent
+// as one batch over that connection. Failed sends are retried with exponential backoff, and whatever is still
+// queued at JVM exit is delivered by a shutdown hook within a bounded time.
+public final class EmailDeliveryQueue {
+    // Messages sent over one connection before the next batch is taken from the queue
+    private static final int BATCH_SIZE = ConfigReaderWriter.getIntPropKey("email.batch.size", 20);
+    // Attempts per message, the first included
+    private static final int MAX_ATTEMPTS = ConfigReaderWriter.getIntPropKey("email.retry.attempts", 3);
+    // Pause before the first retry; doubled for each further one
+    private static final int INITIAL_BACKOFF_MS = ConfigReaderWriter.getIntPropKey("email.retry.backoff.ms", 1000);
+    // An idle connection is closed after this long instead of being left for the server to drop
+    private static final int IDLE_CLOSE_MS = ConfigReaderWriter.getIntPropKey("email.transport.idle.ms", 10000);
+    // How long the shutdown hook waits for queued messages
+    private static final int SHUTDOWN_TIMEOUT_MS = ConfigReaderWriter.getIntPropKey("email.shutdown.timeout.ms", 30000);
+
+    // Queue used by EmailUtils, created with the configured SMTP session on first use
+    private static final class Shared {
+        private static final EmailDeliveryQueue INSTANCE = new EmailDeliveryQueue(EmailUtils::session);
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                    () -> INSTANCE.shutdown(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS), "email-delivery-drain"));
+        }
+    }
+
+    private final Supplier<Session> sessionSupplier;
+    private final BlockingQueue<PendingMessage> queue = new LinkedBlockingQueue<>();
+    // Results not completed yet, so shutdown can wait for exactly the accepted messages
+    private final Set<CompletableFuture<Void>> outstanding = ConcurrentHashMap.newKeySet();
+    private final Thread worker;
+    private volatile boolean accepting = true;
+    // Only touched by the worker thread
+    private Transport transport;
+
+    // Creates a queue sending through sessions from the supplier (asked once, on the first delivery); tests can
+    // pass a session pointing at a local SMTP stand-in
+    public EmailDeliveryQueue(Supplier<Session> sessionSupplier) {
+        this.sessionSupplier = sessionSupplier;
+        this.worker = Thread.ofPlatform().name("email-delivery").daemon().start(this::run);
+    }
+
+    // Returns the queue shared by EmailUtils
+    public static EmailDeliveryQueue shared() {
+        return Shared.INSTANCE;
+    }
+
+    // Queues a message; the future completes once the server accepted it or every attempt failed
+    public CompletableFuture<Void> submit(Message message) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        if (!accepting) {
+            result.completeExceptionally(new IllegalStateException("Email delivery queue is shut down"));
+            return result;
+        }
+        outstanding.add(result);
+        result.whenComplete((ignored, error) -> outstanding.remove(result));
+        queue.add(new PendingMessage(message, result));
+        return result;
+    }
+
+    // Waits until every message queued so far has been delivered or given up; returns false on timeout
+    public boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException {
+        CompletableFuture<?>[] pending = outstanding.toArray(new CompletableFuture<?>[0]);
+        try {
+            CompletableFuture.allOf(pending).get(timeout, unit);
+            return true;
+        } catch (ExecutionException e) {
+            // Failures are reported through each message's own future
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    // Stops accepting messages, waits up to the timeout for the queued ones and closes the connection
+    public void shutdown(long timeout, TimeUnit unit) {
+        accepting = false;
+        try {
+            if (!awaitDelivery(timeout, unit)) {
+                System.err.println("Email delivery: gave up on " + outstanding.size() + " message(s) at shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker.interrupt();
+    }
+
+    // Worker loop: take what is queued, send it over the open connection, close the connection when idle
+    private void run() {
+        List<PendingMessage> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                PendingMessage first = queue.poll(IDLE_CLOSE_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    closeTransport();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (PendingMessage pending : batch) {
+                    deliver(pending);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Shutdown: whatever is left is failed rather than silently dropped
+            batch.addAll(queue);
+            queue.clear();
+            for (PendingMessage pending : batch) {
+                pending.result().completeExceptionally(new IllegalStateException("Email delivery stopped"));
+            }
+        } finally {
+            closeTransport();
+        }
+    }
+
+    // Sends one message, reconnecting and backing off between failed attempts
+    private void deliver(PendingMessage pending) throws InterruptedException {
+        long backoff = INITIAL_BACKOFF_MS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Message message = pending.message();
+                message.saveChanges();
+                connectedTransport().sendMessage(message, message.getAllRecipients());
+                pending.result().complete(null);
+                return;
+            } catch (MessagingException | RuntimeException e) {
+                // The connection may be half-broken after any failure; the next attempt opens a fresh one
+                closeTransport();
+                // Rejected addresses will be rejected again, so only transient failures are retried
+                if (attempt >= MAX_ATTEMPTS || e instanceof SendFailedException) {
+                    System.err.println("Email delivery failed after " + attempt + " attempt(s): " + e.getMessage());
+                    pending.result().completeExceptionally(e);
+                    return;
+                }
+                Thread.sleep(backoff);
+                backoff *= 2;
+            }
+        }
+    }
+
+    private Transport connectedTransport() throws MessagingException {
+        if (transport == null || !transport.isConnected()) {
+            closeTransport();
+            transport = sessionSupplier.get().getTransport();
+            transport.connect();
+        }
+        return transport;
+    }
+
+    private void closeTransport() {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException ignored) {
+                // The connection is being discarded either way
+            }
+            transport = null;
+        }
+    }
+
+    private record PendingMessage(Message message, CompletableFuture<Void> result) {
+    }
+}
@@ -1,20 +1,42 @@
 package Utils;
 
+import jakarta.activation.DataHandler;
+import jakarta.activation.FileDataSource;
 import jakarta.mail.*;
 import jakarta.mail.internet.*;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 // Utility class for sending emails with HTML content and attachments
+// Messages are handed to EmailDeliveryQueue and sent in the background over one reused SMTP connection.
 public final class EmailUtils {
 
+    // Largest message the server accepts, counted after encoding (Gmail: 25,000,000 bytes)
+    private static final long MAX_MESSAGE_BYTES = ConfigReaderWriter.getIntPropKey("email.max.message.bytes", 25_000_000);
+    // Room kept for message and part headers, MIME boundaries and the part note of a split report
+    private static final long ENVELOPE_BYTES = 16 * 1024;
+    // Optional lower cap on the attachment size; 0 leaves it derived from the message limit alone
+    private static final long ATTACHMENT_BYTES_CAP = ConfigReaderWriter.getIntPropKey("email.attachment.max.bytes", 0);
+    // Most emails one attachment may be split into before only the summary is sent
+    private static final int MAX_ATTACHMENT_PARTS = ConfigReaderWriter.getIntPropKey("email.attachment.max.parts", 5);
+
+    // SMTP session shared by every message, created on first use
+    private static volatile Session session;
+
     // Private constructor to prevent instantiation
     private EmailUtils() {
     }
 
-    // Sends an HTML report summary via email
-    public static void sendHtmlReportSummary(String htmlSummary) {
+    // Queues an HTML report summary for delivery via email; returns once the message is queued
+    public static CompletableFuture<Void> sendHtmlReportSummary(String htmlSummary) {
         // Validate input
         try {
             // Get username from configuration
@@ -27,36 +49,108 @@ public final class EmailUtils {
             message.setSubject("Test Execution Report - " + LocalDate.now());
             // Set HTML content
             message.setContent(htmlSummary, "text/html; charset=utf-8");
-            // Send the email
-            Transport.send(message);
-            // Log success message
-            System.out.println("Email sent successfully to: " + recipients);
-            // Handle any exceptions that occur during email sending
+            // Queue the email; the result is logged once the server accepted it
+            return EmailDeliveryQueue.shared().submit(message)
+                    .thenRun(() -> System.out.println("Email sent successfully to: " + recipients));
+            // Handle any exceptions that occur while building the email
         } catch (Exception e) {
             // Log the error and throw a custom exception
             throw new EmailException("Failed to send email", e);
         }
     }
 
-    // Sends an HTML report with an attachment via email
-    public static void sendWithAttachment(String htmlContent, String attachmentPath) throws Exception {
+    // Sends an HTML report with an attachment via email.
+    // The attachment is streamed from disk while the message is sent. One too large for a single email (or a
+    // folder) is split into zip parts sent as separate emails; beyond email.attachment.max.parts only the summary goes out.
+    public static CompletableFuture<Void> sendWithAttachment(String htmlContent, String attachmentPath) throws Exception {
         // get username from configuration
         String username = ConfigReaderWriter.getPropKey("email.username");
         // get recipients from configuration
         String recipients = ConfigReaderWriter.getPropKey("report.recipients");
+        // Subject shared by every message of this report
+        String subject = "Test Report with Attachment - " + LocalDate.now();
+        Path attachment = Paths.get(attachmentPath);
+
+        // Without a file there is nothing to attach, but the summary is still worth sending
+        if (!Files.exists(attachment)) {
+            return sendSummaryOnly(username, recipients, subject, htmlContent,
+                    "The attachment " + attachment.getFileName() + " was not found.");
+        }
+        long maxAttachmentBytes = maxAttachmentBytes(htmlContent);
+        // A file within the limit goes out as it is
+        if (Files.isRegularFile(attachment) && Files.size(attachment) <= maxAttachmentBytes) {
+            return EmailDeliveryQueue.shared().submit(
+                    createAttachmentMessage(username, recipients, subject, htmlContent, attachment));
+        }
+        // zip4j cannot split finer than this, so a summary this large leaves no room for parts
+        if (maxAttachmentBytes < FileUtils.MIN_SPLIT_BYTES) {
+            return sendSummaryOnly(username, recipients, subject, htmlContent, "The summary leaves no room for the "
+                    + "attachment " + attachment.getFileName() + "; it is available at " + attachment.toAbsolutePath() + ".");
+        }
+
+        // Otherwise split it into parts that each fit in one email
+        List<Path> parts = FileUtils.zipInParts(attachmentPath, maxAttachmentBytes);
+        // Every part lives in one folder of its own, removed once the parts are no longer needed
+        Path partsFolder = parts.get(0).getParent();
+        if (parts.size() > MAX_ATTACHMENT_PARTS) {
+            FileUtils.deleteQuietly(partsFolder);
+            return sendSummaryOnly(username, recipients, subject, htmlContent, "The attachment "
+                    + attachment.getFileName() + " needs " + parts.size() + " parts of at most "
+                    + maxAttachmentBytes / 1024 + " KB, more than the limit of " + MAX_ATTACHMENT_PARTS
+                    + "; it is available at " + attachment.toAbsolutePath() + ".");
+        }
+        // All messages are built before any is queued, so a failure here cannot strand a part being sent
+        List<Message> messages = new ArrayList<>(parts.size());
+        try {
+            for (int i = 0; i < parts.size(); i++) {
+                String partNote = "<p>Part " + (i + 1) + " of " + parts.size() + ". Save all parts in one folder and open "
+                        + parts.get(parts.size() - 1).getFileName() + " to extract the report.</p>";
+                messages.add(createAttachmentMessage(username, recipients,
+                        subject + " (part " + (i + 1) + " of " + parts.size() + ")", partNote + htmlContent, parts.get(i)));
+            }
+        } catch (Exception e) {
+            FileUtils.deleteQuietly(partsFolder);
+            throw e;
+        }
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            deliveries.add(EmailDeliveryQueue.shared().submit(message));
+        }
+        // The parts are read while they are sent, so they are deleted only once every delivery has finished
+        return CompletableFuture.allOf(deliveries.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, error) -> FileUtils.deleteQuietly(partsFolder));
+    }
+
+    // Largest attachment that keeps a message with this HTML content within email.max.message.bytes.
+    // Base64 turns every 3 bytes into 4 and ends each 76-character line with CRLF (78 bytes on the wire); the HTML
+    // part is counted at three times its UTF-8 size, the quoted-printable worst case. About 17 MiB for a small summary.
+    static long maxAttachmentBytes(String htmlContent) {
+        long htmlBytes = 3L * htmlContent.getBytes(StandardCharsets.UTF_8).length;
+        long encodedRoom = MAX_MESSAGE_BYTES - ENVELOPE_BYTES - htmlBytes;
+        long derived = Math.max(0, encodedRoom * 3 / 4 * 76 / 78);
+        return ATTACHMENT_BYTES_CAP > 0 ? Math.min(ATTACHMENT_BYTES_CAP, derived) : derived;
+    }
+
+    // Builds a message with the HTML content and one file attached
+    private static Message createAttachmentMessage(String username, String recipients, String subject,
+                                                   String htmlContent, Path file) throws Exception {
         // Create email message with configured username and recipients
         Message message = createEmailMessage(username, recipients);
         // Set subject and content type
-        message.setSubject("Test Report with Attachment - " + LocalDate.now());
+        message.setSubject(subject);
 
         // Create a multipart message to hold both text and attachment
         MimeBodyPart textPart = new MimeBodyPart();
         // Set HTML content for the text part
-        textPart.setContent(htmlContent, "text/html");
+        textPart.setContent(htmlContent, "text/html; charset=utf-8");
         // Create a new MimeBodyPart for the attachment
         MimeBodyPart attachmentPart = new MimeBodyPart();
-        // Set the attachment file
-        attachmentPart.attachFile(attachmentPath);
+        // The file is read through the data source only while the message is written to the server
+        attachmentPart.setDataHandler(new DataHandler(new FileDataSource(file.toFile())));
+        attachmentPart.setFileName(file.getFileName().toString());
+        attachmentPart.setDisposition(Part.ATTACHMENT);
+        // Declared up front so JavaMail does not read the whole file once just to choose an encoding
+        attachmentPart.setHeader("Content-Transfer-Encoding", "base64");
 
         Multipart multipart = new MimeMultipart();
         // Add both parts to the multipart message
@@ -65,56 +159,90 @@ public final class EmailUtils {
         multipart.addBodyPart(attachmentPart);
         // Set the multipart content to the message
         message.setContent(multipart);
-        // Send the email with attachment
-        Transport.send(message);
+        return message;
+    }
+
+    // Sends the HTML content alone, with a note on why the attachment was left out
+    private static CompletableFuture<Void> sendSummaryOnly(String username, String recipients, String subject,
+                                                           String htmlContent, String reason) throws Exception {
+        System.err.println("Report email sent without attachment: " + reason);
+        Message message = createEmailMessage(username, recipients);
+        message.setSubject(subject);
+        message.setContent("<p><i>" + reason + "</i></p>" + htmlContent, "text/html; charset=utf-8");
+        return EmailDeliveryQueue.shared().submit(message);
     }
 
     // Creates a new email message with the specified username and recipients
     private static Message createEmailMessage(String username, String recipients) throws Exception {
-        // Decrypt the email password using the secret key
-        String decryptedPassword = ConfigReaderWriter.getDecryptedPropKey(
-                "email.password",
-                // Get the secret key from configuration
-                ConfigReaderWriter.getPropKey("email.secret")
-        );
+        // Create a new MimeMessage with the shared session
+        Message message = new MimeMessage(session());
+        // Set the sender's email address
+        message.setFrom(new InternetAddress(username));
+        // Set the recipients' email addresses
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipients));
+        // Set the reply-to address to the sender's email
+        return message;
+    }
+
+    // Returns the SMTP session, creating it on first use
+    static Session session() {
+        Session current = session;
+        if (current == null) {
+            synchronized (EmailUtils.class) {
+                // Double-check after acquiring the lock so the session is created once
+                if (session == null) {
+                    session = createSession();
+                }
+                current = session;
+            }
+        }
+        return current;
+    }
 
-        // Create a session with SMTP properties and authentication
-        Session session = Session.getInstance(
+    // Creates a session with SMTP properties and authentication
+    private static Session createSession() {
+        // Get username from configuration
+        String username = ConfigReaderWriter.getPropKey("email.username");
+        Properties smtpProperties = getSmtpProperties();
+        // Without authentication (e.g. a local SMTP stand-in) no password is needed
+        if (!Boolean.parseBoolean(smtpProperties.getProperty("mail.smtp.auth"))) {
+            return Session.getInstance(smtpProperties);
+        }
+        return Session.getInstance(
                 // Get SMTP properties from configuration
-                getSmtpProperties(),
+                smtpProperties,
                 // Create an authenticator for SMTP authentication
                 new Authenticator() {
                     // Override the getPasswordAuthentication method to provide credentials
                     protected PasswordAuthentication getPasswordAuthentication() {
+                        // Decrypt the email password using the secret key (decrypted once and cached)
+                        String decryptedPassword = ConfigReaderWriter.getDecryptedPropKey(
+                                "email.password",
+                                // Get the secret key from configuration
+                                ConfigReaderWriter.getPropKey("email.secret")
+                        );
                         // Return a new PasswordAuthentication object with the username and decrypted password
                         return new PasswordAuthentication(username, decryptedPassword);
                     }
                 }
         );
-
-        // Create a new MimeMessage with the session
-        Message message = new MimeMessage(session);
-        // Set the sender's email address
-        message.setFrom(new InternetAddress(username));
-        // Set the recipients' email addresses
-        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipients));
-        // Set the reply-to address to the sender's email
-        return message;
     }
 
-    // Retrieves SMTP properties from the configuration
+    // Retrieves SMTP properties from the configuration; -D system properties override the file
     private static Properties getSmtpProperties() {
         // Create a new Properties object to hold SMTP configuration
         Properties props = new Properties();
         // Load SMTP properties from the configuration file
-        props.put("mail.smtp.auth", ConfigReaderWriter.getPropKey("mail.smtp.auth"));
+        props.put("mail.smtp.auth", ConfigReaderWriter.getPropKey("mail.smtp.auth", "true"));
         // Enable STARTTLS for secure communication
-        props.put("mail.smtp.starttls.enable", ConfigReaderWriter.getPropKey("mail.smtp.starttls.enable"));
+        props.put("mail.smtp.starttls.enable", ConfigReaderWriter.getPropKey("mail.smtp.starttls.enable", "true"));
         // Set the SMTP host from the configuration
-        props.put("mail.smtp.host", ConfigReaderWriter.getPropKey("mail.smtp.host"));
+        props.put("mail.smtp.host", ConfigReaderWriter.getPropKey("mail.smtp.host", "localhost"));
         // Set the SMTP port from the configuration
-        props.put("mail.smtp.port", ConfigReaderWriter.getPropKey("mail.smtp.port"));
-        // Set the SMTP SSL port from the configuration
+        props.put("mail.smtp.port", ConfigReaderWriter.getPropKey("mail.smtp.port", "25"));
+        // Fail a stuck connection instead of hanging the delivery thread
+        props.put("mail.smtp.connectiontimeout", ConfigReaderWriter.getPropKey("mail.smtp.connectiontimeout", "10000"));
+        props.put("mail.smtp.timeout", ConfigReaderWriter.getPropKey("mail.smtp.timeout", "30000"));
         return props;
     }
 
@@ -0,0 +1,55 @@
+package Utils;
+
+import io.restassured.filter.Filter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-endpoint latency of every REST Assured request made during the run.
+// Endpoints are keyed by method and the path as written in the test (e.g. "POST /Service/Insert"),
+// so path templates such as "/Service/GetById/{id}" are grouped together.
+public final class EndpointMetrics {
+    // Histogram per endpoint, created on first use
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    // Stateless filter shared by every request specification
+    private static final Filter TIMING_FILTER = (requestSpec, responseSpec, context) -> {
+        long start = System.nanoTime();
+        try {
+            return context.next(requestSpec, responseSpec);
+        } finally {
+            // Failed requests are timed as well, they are still part of the endpoint's behaviour
+            histogramFor(requestSpec.getMethod() + " " + stripQuery(requestSpec.getUserDefinedPath()))
+                    .recordNanos(System.nanoTime() - start);
+        }
+    };
+
+    // Private constructor to prevent instantiation
+    private EndpointMetrics() {
+    }
+
+    // Filter that times each request; register it after the logging filters and just before the connection release
+    // filter, so only the round trip and the body download are measured
+    public static Filter timingFilter() {
+        return TIMING_FILTER;
+    }
+
+    // Histograms of all endpoints called so far, sorted by endpoint
+    public static Map<String, LatencyHistogram> snapshot() {
+        return new TreeMap<>(histograms);
+    }
+
+    // Returns the histogram of an endpoint, creating it on first use
+    private static LatencyHistogram histogramFor(String endpoint) {
+        // Plain get first so the common case does not lock a map bin
+        LatencyHistogram histogram = histograms.get(endpoint);
+        return histogram != null ? histogram : histograms.computeIfAbsent(endpoint, key -> new LatencyHistogram());
+    }
+
+    // Removes any query string written directly into the path
+    private static String stripQuery(String path) {
+        int query = path.indexOf('?');
+        return query < 0 ? path : path.substring(0, query);
+    }
+}
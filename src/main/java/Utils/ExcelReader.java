@@ -1,58 +1,43 @@
 package Utils;
 
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.*;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
 
-// Utility class for reading Excel files using Apache POI
+// Utility class for reading Excel files using Apache POI.
+// Workbooks are parsed once into a columnar cache keyed by path and checked against the file's modification
+// time and size on every call, so several DataProviders over the same workbook share one parse.
 public class ExcelReader {
+    // Parsed workbooks by absolute path
+    private static final Map<Path, CachedWorkbook> workbookCache = new ConcurrentHashMap<>();
 
     // Method 1: Return data as List of Maps (for REST Assured or custom test logic)
     public static List<Map<String, String>> readExcelAsMap(String filePath, String sheetName) {
-        // list to hold the data read from the Excel file
-        List<Map<String, String>> dataList = new ArrayList<>();
-        // Validate file path and sheet name
-        try (FileInputStream fis = new FileInputStream(new File(filePath));
-             // Create a Workbook instance from the file input stream
-             Workbook workbook = WorkbookFactory.create(fis)) {
-            // Get the specified sheet by name
-            Sheet sheet = workbook.getSheet(sheetName);
-            // If the sheet is not found, throw an exception
-            if (sheet == null) throw new IllegalArgumentException("Sheet not found: " + sheetName);
-            // Get the first row which contains the headers
-            Row header = sheet.getRow(0);
-            // get the number of columns in the header row
-            int colCount = header.getLastCellNum();
-            // Iterate through the rows starting from the second row (index 1)
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                // Get the current row
-                Row row = sheet.getRow(i);
-                // If the row is null (empty), skip to the next iteration
-                if (row == null) continue;
-                // Create a map to hold the key-value pairs for the current row
-                Map<String, String> rowMap = new LinkedHashMap<>();
-                // Iterate through each cell in the row
-                for (int j = 0; j < colCount; j++) {
-                    // Get the cell value as a string
-                    String key = header.getCell(j).getStringCellValue().trim();
-                    // Get the cell value for the current row and column
-                    String value = getCellValueAsString(row.getCell(j));
-                    // Add the key-value pair to the map
-                    rowMap.put(key, value);
-                }
-                // Add the map to the list
-                dataList.add(rowMap);
+        // Get the cached columns of the sheet
+        SheetColumns sheet = getSheet(filePath, sheetName);
+        // list to hold one map per row present in the sheet
+        List<Map<String, String>> dataList = new ArrayList<>(sheet.rowCount);
+        // Iterate through the data rows
+        for (int i = 0; i < sheet.rowCount; i++) {
+            // Rows missing from the sheet are skipped
+            if (!sheet.presentRows.get(i)) continue;
+            // Create a map to hold the key-value pairs for the current row
+            Map<String, String> rowMap = new LinkedHashMap<>(sheet.headers.length * 2);
+            // Headers were trimmed and interned once when the sheet was cached
+            for (int j = 0; j < sheet.headers.length; j++) {
+                rowMap.put(sheet.headers[j], sheet.columns[j][i]);
             }
-            // If no rows were read, throw an exception
-        } catch (IOException e) {
-            // Wrap the IOException in a RuntimeException with a custom message
-            throw new RuntimeException("Failed to read Excel file: " + e.getMessage(), e);
+            // Add the map to the list
+            dataList.add(rowMap);
         }
         // Return the list of maps containing the data read from the Excel file
         return dataList;
@@ -60,43 +45,146 @@ public class ExcelReader {
 
     //  Method 2: Return data as Object[][] for use in JUnit/TestNG DataProviders
     public static Object[][] readExcelAsArray(String filePath, String sheetName) {
-        // store the data read from the Excel file
-        Object[][] data;
-        // Create a FileInputStream to read the Excel file
-        try (FileInputStream fis = new FileInputStream(new File(filePath));
-             // Create a Workbook instance from the file input stream
-             Workbook workbook = WorkbookFactory.create(fis)) {//
-            // Get the specified sheet by name
-            Sheet sheet = workbook.getSheet(sheetName);
+        // Get the cached columns of the sheet
+        SheetColumns sheet = getSheet(filePath, sheetName);
+        // Every data row, including rows missing from the sheet, as blank values
+        Object[][] data = new Object[sheet.rowCount][sheet.headers.length];
+        // Copy the column arrays into rows
+        for (int j = 0; j < sheet.headers.length; j++) {
+            String[] column = sheet.columns[j];
+            for (int i = 0; i < sheet.rowCount; i++) {
+                data[i][j] = column[i];
+            }
+        }
+        // Return the data array containing the values read from the Excel file
+        return data;
+    }
+
+    // Method 3: Return the values of one column, without building rows
+    public static List<String> readExcelColumn(String filePath, String sheetName, String columnName) {
+        // Get the cached columns of the sheet
+        SheetColumns sheet = getSheet(filePath, sheetName);
+        // Find the column by its trimmed header
+        for (int j = 0; j < sheet.headers.length; j++) {
+            if (sheet.headers[j].equals(columnName.trim())) {
+                // Read-only view over the cached column array
+                return Collections.unmodifiableList(Arrays.asList(sheet.columns[j]));
+            }
+        }
+        throw new IllegalArgumentException("Column not found: " + columnName + " in sheet " + sheetName);
+    }
+
+    // Returns the cached sheet, (re)loading the workbook when the file is new or has changed
+    private static SheetColumns getSheet(String filePath, String sheetName) {
+        // Absolute path so different relative spellings share one entry
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        try {
+            // Current modification time and size identify the cached version
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long modified = attributes.lastModifiedTime().toMillis();
+            long size = attributes.size();
+            // compute() makes concurrent callers wait for a single load of the same file
+            CachedWorkbook workbook = workbookCache.compute(path, (key, cached) ->
+                    cached != null && cached.modified == modified && cached.size == size
+                            ? cached
+                            : new CachedWorkbook(modified, size, loadWorkbook(key)));
+            // Look up the requested sheet
+            SheetColumns sheet = workbook.sheets.get(sheetName);
             // If the sheet is not found, throw an exception
             if (sheet == null) throw new IllegalArgumentException("Sheet not found: " + sheetName);
-            // Get the last row number to determine the number of rows
-            int rowCount = sheet.getLastRowNum(); // skips header
-            // Get the first row which contains the headers
-            Row headerRow = sheet.getRow(0);
-            // Get the last cell number in the header row to determine the number of columns
-            int colCount = headerRow.getLastCellNum();
-            // Initialize the data array with the number of rows and columns
-            data = new Object[rowCount][colCount];
-            // Iterate through the rows starting from the second row (index 1)
-            for (int i = 1; i <= rowCount; i++) {
-                // Get the current row
-                Row row = sheet.getRow(i);
-                // If the row is null (empty), continue to the next iteration
-                for (int j = 0; j < colCount; j++) {
-                    // Get the cell in the current row and column
-                    Cell cell = row != null ? row.getCell(j) : null;
-                    // Get the cell value as a string and store it in the data array
-                    data[i - 1][j] = getCellValueAsString(cell);
-                }
+            return sheet;
+        } catch (IOException e) {
+            // Wrap the IOException in a RuntimeException with a custom message
+            throw new RuntimeException("Failed to read Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    // Parses every sheet of the workbook into columns
+    private static Map<String, SheetColumns> loadWorkbook(Path path) {
+        try {
+            // .xlsx files are streamed, one sheet per virtual thread
+            if (FileMagic.valueOf(path.toFile()) == FileMagic.OOXML) {
+                return loadSheetsInParallel(path.toString());
             }
-            // If no rows were read, throw an exception
+            // Older formats go through the usermodel
+            return loadWithUsermodel(path.toFile());
         } catch (IOException e) {
             // Wrap the IOException in a RuntimeException with a custom message
             throw new RuntimeException("Failed to read Excel file: " + e.getMessage(), e);
         }
-        // Return the data array containing the values read from the Excel file
-        return data;
+    }
+
+    // Streams all sheets of an .xlsx concurrently; each reader opens its own view of the package
+    private static Map<String, SheetColumns> loadSheetsInParallel(String filePath) {
+        // Sheet names in workbook order
+        List<String> sheetNames = StreamingExcelReader.sheetNames(filePath);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Start one load per sheet
+            Map<String, Future<SheetColumns>> loads = new LinkedHashMap<>();
+            for (String sheetName : sheetNames) {
+                loads.put(sheetName, executor.submit(() -> loadStreamedSheet(filePath, sheetName)));
+            }
+            // Collect the results, keeping workbook order
+            Map<String, SheetColumns> sheets = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<SheetColumns>> load : loads.entrySet()) {
+                sheets.put(load.getKey(), load.getValue().get());
+            }
+            return sheets;
+        } catch (ExecutionException e) {
+            // Surface the sheet's own failure
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            // Restore the interrupt flag and give up
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading Excel file: " + filePath, e);
+        }
+    }
+
+    // Streams one sheet into columns
+    private static SheetColumns loadStreamedSheet(String filePath, String sheetName) {
+        try (StreamingExcelReader.Rows<Object[]> rows = StreamingExcelReader.streamAsArray(filePath, sheetName)) {
+            // Builder sized by the header row
+            SheetColumns.Builder builder = new SheetColumns.Builder(rows.getHeaders());
+            // Gaps arrive as blank rows flagged as not present
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                builder.addRow((String[]) row, rows.isLastRowPresent());
+            }
+            return builder.build();
+        }
+    }
+
+    // Reads all sheets with the POI usermodel (used for .xls)
+    private static Map<String, SheetColumns> loadWithUsermodel(File file) throws IOException {
+        Map<String, SheetColumns> sheets = new LinkedHashMap<>();
+        try (FileInputStream fis = new FileInputStream(file);
+             // Create a Workbook instance from the file input stream
+             Workbook workbook = WorkbookFactory.create(fis)) {
+            for (Sheet sheet : workbook) {
+                // Get the first row which contains the headers
+                Row header = sheet.getRow(0);
+                // get the number of columns in the header row
+                int colCount = header == null ? 0 : header.getLastCellNum();
+                List<String> headers = new ArrayList<>(colCount);
+                for (int j = 0; j < colCount; j++) {
+                    Cell cell = header.getCell(j);
+                    headers.add(cell == null ? "" : cell.getStringCellValue());
+                }
+                SheetColumns.Builder builder = new SheetColumns.Builder(headers);
+                // Iterate through the rows starting from the second row (index 1)
+                for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+                    Row row = sheet.getRow(i);
+                    String[] values = new String[colCount];
+                    for (int j = 0; j < colCount; j++) {
+                        // Get the cell value as a string
+                        values[j] = getCellValueAsString(row != null ? row.getCell(j) : null);
+                    }
+                    builder.addRow(values, row != null);
+                }
+                sheets.put(sheet.getSheetName(), builder.build());
+            }
+        }
+        return sheets;
     }
 
     // Helper method to get the cell value as a string
@@ -121,8 +209,75 @@ public class ExcelReader {
             default -> "";
         };
     }
-}
 
+    // One parsed workbook and the file version it was read from
+    private static final class CachedWorkbook {
+        final long modified;
+        final long size;
+        final Map<String, SheetColumns> sheets;
+
+        CachedWorkbook(long modified, long size, Map<String, SheetColumns> sheets) {
+            this.modified = modified;
+            this.size = size;
+            this.sheets = sheets;
+        }
+    }
+
+    // Immutable columnar copy of one sheet: interned headers and one value array per column
+    private static final class SheetColumns {
+        final String[] headers;
+        final String[][] columns;
+        final BitSet presentRows;
+        final int rowCount;
+
+        private SheetColumns(String[] headers, String[][] columns, BitSet presentRows, int rowCount) {
+            this.headers = headers;
+            this.columns = columns;
+            this.presentRows = presentRows;
+            this.rowCount = rowCount;
+        }
+
+        // Collects rows into growable column arrays
+        private static final class Builder {
+            private final String[] headers;
+            private String[][] columns;
+            private final BitSet presentRows = new BitSet();
+            private int rowCount;
+
+            Builder(List<String> headerNames) {
+                headers = new String[headerNames.size()];
+                for (int j = 0; j < headers.length; j++) {
+                    // Trimmed and interned once instead of per cell
+                    headers[j] = headerNames.get(j).trim().intern();
+                }
+                columns = new String[headers.length][16];
+            }
+
+            void addRow(String[] values, boolean present) {
+                // Grow every column together
+                if (columns.length > 0 && rowCount == columns[0].length) {
+                    for (int j = 0; j < columns.length; j++) {
+                        columns[j] = Arrays.copyOf(columns[j], rowCount * 2);
+                    }
+                }
+                for (int j = 0; j < columns.length; j++) {
+                    columns[j][rowCount] = j < values.length ? values[j] : "";
+                }
+                presentRows.set(rowCount, present);
+                rowCount++;
+            }
+
+            SheetColumns build() {
+                // Trim the arrays to the row count
+                String[][] trimmed = new String[columns.length][];
+                for (int j = 0; j < columns.length; j++) {
+                    trimmed[j] = Arrays.copyOf(columns[j], rowCount);
+                }
+                return new SheetColumns(headers, trimmed, presentRows, rowCount);
+            }
+        }
+    }
+}
 
 /*
 Examples
@@ -138,4 +293,13 @@ Object[][] data = ExcelReader.readExcelAsArray("src/test/resources/TestData/user
 
 System.out.println(data[0][0]); // first row, first column
 System.out.println(data[0][1]); // first row, second column
+
+A single column (served from the cached workbook, no rows built)
+List<String> usernames = ExcelReader.readExcelColumn("src/test/resources/TestData/users.xlsx", "Users", "username");
+
+Large sheets (constant memory, lazy TestNG DataProvider)
+@DataProvider(name = "users")
+public Iterator<Object[]> users() {
+    return StreamingExcelReader.streamAsArray("src/test/resources/TestData/users.xlsx", "Users");
+}
 */
@@ -1,8 +1,15 @@
 package Utils;
 
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.ZipParameters;
+import net.lingala.zip4j.model.enums.CompressionMethod;
+
 import java.io.*;
 import java.nio.file.*;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 import java.util.zip.*;
 
 // Utility class for file operations such as cleaning directories, zipping folders, and checking directory writability.
@@ -13,6 +20,11 @@ public final class FileUtils {
     public static final String ALLURE_RESULTS_DIR = "target/allure-results";
     public static final String ALLURE_REPORT_DIR = "target/allure-report";
     public static final String ALLURE_REPORT_ZIP = "target/ReportSummary.zip";
+    public static final String LOAD_RESULTS_DIR = "target/load-results";
+    public static final String ATTACHMENT_PARTS_DIR = "target/attachment-parts";
+
+    // zip4j refuses split parts smaller than 64 KB
+    static final long MIN_SPLIT_BYTES = 65536;
 
     // Private constructor to prevent instantiation of this utility class
     private FileUtils() {
@@ -76,6 +88,56 @@ public final class FileUtils {
         }
     }
 
+    // Packs a file or folder into a split zip archive whose parts are at most partBytes each, and returns the
+    // parts in the order they must be saved (.z01, .z02, ..., .zip last). Files that are already zip archives are
+    // stored rather than compressed again.
+    public static List<Path> zipInParts(String sourcePath, long partBytes) throws IOException {
+        // Convert the source path to a Path object
+        Path source = Paths.get(sourcePath);
+        // Name the archive after the source (ReportSummary.zip -> ReportSummary-parts.zip)
+        String baseName = source.getFileName().toString().replaceFirst("\\.zip$", "");
+        // A folder of its own per call, so parts still waiting to be emailed are never overwritten
+        Files.createDirectories(Paths.get(ATTACHMENT_PARTS_DIR));
+        Path archive = Files.createTempDirectory(Paths.get(ATTACHMENT_PARTS_DIR), baseName + "-")
+                .resolve(baseName + "-parts.zip");
+
+        ZipParameters parameters = new ZipParameters();
+        // Keep paths relative to the folder, as zipFolder does
+        parameters.setIncludeRootFolder(false);
+        boolean alreadyCompressed = source.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip");
+        parameters.setCompressionMethod(alreadyCompressed ? CompressionMethod.STORE : CompressionMethod.DEFLATE);
+
+        // zip4j streams each file into the archive and rolls over to the next part at the size limit
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            long splitLength = Math.max(MIN_SPLIT_BYTES, partBytes);
+            if (Files.isDirectory(source)) {
+                zipFile.createSplitZipFileFromFolder(source.toFile(), parameters, true, splitLength);
+            } else {
+                zipFile.createSplitZipFile(List.of(source.toFile()), parameters, true, splitLength);
+            }
+            return zipFile.getSplitZipFiles().stream().map(File::toPath).toList();
+        }
+    }
+
+    // Deletes a file or a folder with everything in it; a failure is only logged, as it merely leaves clutter behind
+    public static void deleteQuietly(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            // Children before their folder
+            paths.sorted(Comparator.reverseOrder()).forEach(child -> {
+                try {
+                    Files.delete(child);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Could not delete " + path + ": " + e.getMessage());
+        }
+    }
+
     // Checks if directory is writable
     public static boolean isDirectoryWritable(String path) {
         // Convert the string path to a Path object
@@ -0,0 +1,177 @@
+package Utils;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Shared, keep-alive HTTP connection pool used by every REST Assured request in the run.
+// REST Assured builds a new HttpClient per request; handing each of them this pooled connection manager
+// means TCP connections (and TLS sessions, through one shared SSLSocketFactory) are reused across tests.
+@SuppressWarnings("deprecation") // REST Assured 5 still requires the HttpClient 4.2 style AbstractHttpClient API
+public final class HttpConnectionPool {
+    // Pool sizing and lifetime settings, overridable with -D system properties
+    private static final int MAX_TOTAL = ConfigReaderWriter.getIntPropKey("http.pool.max.total", 200);
+    private static final int MAX_PER_ROUTE = ConfigReaderWriter.getIntPropKey("http.pool.max.per.route", 50);
+    private static final int KEEP_ALIVE_MS = ConfigReaderWriter.getIntPropKey("http.pool.keep.alive.ms", 30000);
+    private static final int IDLE_EVICTION_MS = ConfigReaderWriter.getIntPropKey("http.pool.idle.eviction.ms", 60000);
+    private static final int EVICTION_INTERVAL_MS = 5000;
+
+    // Counters of physical connections opened versus pooled connections handed out again
+    private static final LongAdder connectionsCreated = new LongAdder();
+    private static final LongAdder connectionsReused = new LongAdder();
+
+    // One trust-all socket factory so the JSSE client session cache can resume TLS sessions
+    private static final SSLSocketFactory SSL_SOCKET_FACTORY = createSslSocketFactory();
+
+    // Stateless filter shared by every request specification
+    private static final Filter RELEASE_CONNECTION_FILTER = (requestSpec, responseSpec, context) -> {
+        Response response = context.next(requestSpec, responseSpec);
+        // Buffering the body hits end-of-stream, which releases the connection to the pool
+        response.asByteArray();
+        return response;
+    };
+
+    // The pooled connection manager shared by all HttpClient instances
+    private static final CountingConnectionManager CONNECTION_MANAGER = createConnectionManager();
+
+    // Start the background task that closes expired and idle pooled connections
+    static {
+        startIdleConnectionEvictor();
+    }
+
+    // Private constructor to prevent instantiation
+    private HttpConnectionPool() {
+    }
+
+    // Factory to plug into RestAssured's HttpClientConfig so every request leases from the shared pool
+    public static HttpClientConfig.HttpClientFactory httpClientFactory() {
+        return HttpConnectionPool::createHttpClient;
+    }
+
+    // Socket factory to pass to SSLConfig so REST Assured registers the shared factory instead of a new one
+    public static SSLSocketFactory sslSocketFactory() {
+        return SSL_SOCKET_FACTORY;
+    }
+
+    // Filter that reads every response body right away so its connection goes back to the pool.
+    // REST Assured reads bodies lazily; an unread body would keep its pooled connection leased forever.
+    public static Filter releaseConnectionFilter() {
+        return RELEASE_CONNECTION_FILTER;
+    }
+
+    // Number of physical connections opened so far
+    public static long getConnectionsCreated() {
+        return connectionsCreated.sum();
+    }
+
+    // Number of requests served by an already open pooled connection
+    public static long getConnectionsReused() {
+        return connectionsReused.sum();
+    }
+
+    // One-line summary of connection usage for logs and the report summary
+    public static String describeUsage() {
+        long created = getConnectionsCreated();
+        long reused = getConnectionsReused();
+        long total = created + reused;
+        // Reuse ratio shows how much connection setup the pool saved
+        double reuseRatio = total == 0 ? 0 : (reused * 100.0) / total;
+        return String.format("%d leased, %d created, %d reused (%.1f%% reuse)", total, created, reused, reuseRatio);
+    }
+
+    // Creates a lightweight HttpClient that shares the pooled connection manager
+    private static HttpClient createHttpClient() {
+        DefaultHttpClient client = new DefaultHttpClient(CONNECTION_MANAGER);
+        // Keep connections open for the server's Keep-Alive hint, or the configured default
+        client.setKeepAliveStrategy(keepAliveStrategy());
+        return client;
+    }
+
+    // Honors the server's Keep-Alive timeout and falls back to the configured duration
+    private static ConnectionKeepAliveStrategy keepAliveStrategy() {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? serverKeepAlive : KEEP_ALIVE_MS;
+        };
+    }
+
+    // Builds the relaxed (trust-all, any host name) socket factory used for HTTPS test environments
+    private static SSLSocketFactory createSslSocketFactory() {
+        try {
+            return new SSLSocketFactory((chain, authType) -> true, SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to create the shared SSL socket factory", e);
+        }
+    }
+
+    // Builds the pooled connection manager with the shared HTTPS scheme
+    private static CountingConnectionManager createConnectionManager() {
+        SchemeRegistry schemeRegistry = SchemeRegistryFactory.createDefault();
+        schemeRegistry.register(new Scheme("https", 443, SSL_SOCKET_FACTORY));
+
+        CountingConnectionManager manager = new CountingConnectionManager(schemeRegistry);
+        manager.setMaxTotal(MAX_TOTAL);
+        manager.setDefaultMaxPerRoute(MAX_PER_ROUTE);
+        return manager;
+    }
+
+    // Starts a daemon thread that evicts expired and idle connections from the pool
+    private static void startIdleConnectionEvictor() {
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            CONNECTION_MANAGER.closeExpiredConnections();
+            CONNECTION_MANAGER.closeIdleConnections(IDLE_EVICTION_MS, TimeUnit.MILLISECONDS);
+        }, EVICTION_INTERVAL_MS, EVICTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Pooling manager that records whether each leased connection was already open
+    private static class CountingConnectionManager extends PoolingClientConnectionManager {
+
+        CountingConnectionManager(SchemeRegistry schemeRegistry) {
+            super(schemeRegistry);
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ClientConnectionRequest delegate = super.requestConnection(route, state);
+            return new ClientConnectionRequest() {
+                @Override
+                public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                        throws InterruptedException, ConnectionPoolTimeoutException {
+                    ManagedClientConnection connection = delegate.getConnection(timeout, unit);
+                    // An open connection came back from the pool; a closed one is about to be opened
+                    (connection.isOpen() ? connectionsReused : connectionsCreated).increment();
+                    return connection;
+                }
+
+                @Override
+                public void abortRequest() {
+                    delegate.abortRequest();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package Utils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Checks that the database, the backend API and the SMTP server are reachable before any test runs.
+// All checks run in parallel with short connect timeouts and are retried with bounded backoff while a
+// service is still starting. The verdict is computed once and reused for the rest of the JVM.
+public final class InfrastructurePreflight {
+    // Connect timeout of a single probe
+    private static final int CONNECT_TIMEOUT_MS = ConfigReaderWriter.getIntPropKey("preflight.connect.timeout.ms", 1000);
+    // Total time a check keeps polling before it is reported as failed
+    private static final int READY_TIMEOUT_MS = ConfigReaderWriter.getIntPropKey("preflight.ready.timeout.ms", 10000);
+    // First and largest pause between two attempts of the same check
+    private static final int INITIAL_BACKOFF_MS = 100;
+    private static final int MAX_BACKOFF_MS = 2000;
+    // Default ports used when the configured address has none
+    private static final int DEFAULT_SQL_SERVER_PORT = 1433;
+    private static final int DEFAULT_SMTP_PORT = 25;
+    // portNumber property of a SQL Server JDBC URL
+    private static final Pattern PORT_NUMBER_PROPERTY = Pattern.compile("(?i);portNumber=(\\d+)");
+
+    // Verdict shared by every caller once computed
+    private static volatile Verdict verdict;
+
+    // Private constructor to prevent instantiation
+    private InfrastructurePreflight() {
+    }
+
+    // Runs the checks on first call and returns the cached verdict afterwards
+    public static Verdict verify() {
+        // Fast path once the verdict is known
+        Verdict result = verdict;
+        if (result == null) {
+            synchronized (InfrastructurePreflight.class) {
+                // Double-check after acquiring the lock so the checks run only once
+                if (verdict == null) {
+                    verdict = runChecks();
+                }
+                result = verdict;
+            }
+        }
+        return result;
+    }
+
+    // Runs every check in parallel and waits for all of them
+    private static Verdict runChecks() {
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<CheckResult>> checks = List.of(
+                    CompletableFuture.supplyAsync(InfrastructurePreflight::checkDatabase, executor),
+                    CompletableFuture.supplyAsync(InfrastructurePreflight::checkBackend, executor),
+                    CompletableFuture.supplyAsync(InfrastructurePreflight::checkSmtp, executor));
+            List<CheckResult> results = checks.stream().map(CompletableFuture::join).toList();
+            return new Verdict(results, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Waits for the SQL Server port, then opens the first pooled connection
+    private static CheckResult checkDatabase() {
+        return poll("Database", true, deadline -> {
+            String url = ConfigReaderWriter.getPropKey("db.url");
+            HostPort address = parseSqlServerAddress(url);
+            // A named instance is resolved by the SQL Browser service, so only the JDBC login can tell
+            if (address != null) {
+                probe(address.host(), address.port());
+            }
+            // The login runs on its own thread so the attempt cannot outlast the readiness deadline
+            CompletableFuture<Void> login = CompletableFuture.runAsync(() -> {
+                try {
+                    DBConnection.getConnection();
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                } finally {
+                    // Return the connection from the thread that leased it so the tests can reuse it
+                    DBConnection.release();
+                }
+            }, runnable -> Thread.ofVirtual().name("preflight-db-login").start(runnable));
+            try {
+                login.get(Math.max(1, (deadline - System.nanoTime()) / 1_000_000), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw new IOException("JDBC connection failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (TimeoutException e) {
+                throw new IOException("JDBC connection did not complete before the readiness timeout", e);
+            }
+            return url;
+        });
+    }
+
+    // Waits for the backend host and port taken from base.uri
+    private static CheckResult checkBackend() {
+        return poll("Backend", true, deadline -> {
+            URI uri = URI.create(ConfigReaderWriter.getPropKey("base.uri"));
+            int port = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+            probe(uri.getHost(), port);
+            return uri.getHost() + ":" + port;
+        });
+    }
+
+    // Checks the SMTP server once; a failure only affects the report email, so it is neither required nor
+    // worth holding up the run for the readiness timeout
+    private static CheckResult checkSmtp() {
+        return attemptOnce("SMTP", false, deadline -> {
+            String host = ConfigReaderWriter.getPropKey("mail.smtp.host");
+            int port = ConfigReaderWriter.getIntPropKey("mail.smtp.port", DEFAULT_SMTP_PORT);
+            probe(host, port);
+            return host + ":" + port;
+        });
+    }
+
+    // Retries a check with doubling pauses until it passes or the readiness timeout runs out
+    private static CheckResult poll(String name, boolean required, Probe probe) {
+        long start = System.nanoTime();
+        long deadline = start + READY_TIMEOUT_MS * 1_000_000L;
+        long backoff = INITIAL_BACKOFF_MS;
+        int attempts = 0;
+        while (true) {
+            attempts++;
+            try {
+                String target = probe.run(deadline);
+                return new CheckResult(name, required, true, attempts, elapsedMs(start), target, null);
+            } catch (Exception e) {
+                long remainingMs = (deadline - System.nanoTime()) / 1_000_000;
+                // Stop when the next pause would pass the deadline
+                if (remainingMs <= backoff || !sleep(backoff)) {
+                    return new CheckResult(name, required, false, attempts, elapsedMs(start), null, e);
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    // Runs a check a single time, bounded by the connect timeout
+    private static CheckResult attemptOnce(String name, boolean required, Probe probe) {
+        long start = System.nanoTime();
+        try {
+            String target = probe.run(start + CONNECT_TIMEOUT_MS * 1_000_000L);
+            return new CheckResult(name, required, true, 1, elapsedMs(start), target, null);
+        } catch (Exception e) {
+            return new CheckResult(name, required, false, 1, elapsedMs(start), null, e);
+        }
+    }
+
+    // Opens and closes a TCP connection with the configured connect timeout
+    private static void probe(String host, int port) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+        }
+    }
+
+    // Extracts host and port from jdbc:sqlserver://host[:port][;props], null for named instances
+    private static HostPort parseSqlServerAddress(String url) {
+        String server = url.replaceFirst("(?i)^jdbc:sqlserver://", "");
+        // Properties after the first semicolon, the server part before it
+        int propertiesStart = server.indexOf(';');
+        String properties = propertiesStart < 0 ? "" : server.substring(propertiesStart);
+        server = propertiesStart < 0 ? server : server.substring(0, propertiesStart);
+        if (server.contains("\\")) {
+            return null;
+        }
+        int colon = server.lastIndexOf(':');
+        if (colon > 0) {
+            return new HostPort(server.substring(0, colon), Integer.parseInt(server.substring(colon + 1)));
+        }
+        // The port can also be given as a portNumber property
+        Matcher portProperty = PORT_NUMBER_PROPERTY.matcher(properties);
+        int port = portProperty.find() ? Integer.parseInt(portProperty.group(1)) : DEFAULT_SQL_SERVER_PORT;
+        return new HostPort(server.isEmpty() ? "localhost" : server, port);
+    }
+
+    // Sleeps between attempts; returns false when interrupted
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Milliseconds since the given System.nanoTime() value
+    private static long elapsedMs(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    // One attempt of a check, returning a description of what it reached; deadline is a System.nanoTime() value
+    @FunctionalInterface
+    private interface Probe {
+        String run(long deadline) throws Exception;
+    }
+
+    // Host and port pair of a TCP endpoint
+    private record HostPort(String host, int port) {
+    }
+
+    // Outcome of a single check
+    public record CheckResult(String name, boolean required, boolean passed, int attempts, long elapsedMs,
+                              String target, Exception error) {
+
+        // One-line description for the console
+        public String describe() {
+            return passed
+                    ? String.format("%s reachable at %s (%d ms, %d attempt(s))", name, target, elapsedMs, attempts)
+                    : String.format("%s not available after %d ms, %d attempt(s): %s", name, elapsedMs, attempts,
+                    error == null ? "unknown error" : error.getClass().getSimpleName() + ": " + error.getMessage());
+        }
+    }
+
+    // Outcome of all checks
+    public record Verdict(List<CheckResult> results, long elapsedMs) {
+
+        // True when every required check passed
+        public boolean isReady() {
+            return results.stream().allMatch(result -> result.passed() || !result.required());
+        }
+
+        // First failed required check, if any
+        public CheckResult firstRequiredFailure() {
+            return results.stream().filter(result -> result.required() && !result.passed()).findFirst().orElse(null);
+        }
+
+        // Result of the check with the given name
+        public CheckResult get(String name) {
+            return results.stream().filter(result -> result.name().equals(name)).findFirst().orElse(null);
+        }
+    }
+}
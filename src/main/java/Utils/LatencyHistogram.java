@@ -0,0 +1,101 @@
+package Utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Thread-safe, fixed-size latency histogram with log-linear buckets.
+// Recording is one array increment and never allocates, so it can sit on the request path of load runs.
+// Each power-of-two range of microseconds is split into 32 linear sub-buckets, giving about 3% precision.
+public final class LatencyHistogram {
+    // Number of bits used for the linear sub-buckets inside each power of two
+    private static final int SUB_BUCKET_BITS = 5;
+    // Number of linear sub-buckets per power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Enough buckets to cover every positive long value in microseconds
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    // Per-bucket counters
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    // Total number of recorded values
+    private final LongAdder totalCount = new LongAdder();
+    // Sum of recorded values for the mean
+    private final LongAdder totalMicros = new LongAdder();
+    // Exact maximum recorded value
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    // Records a latency measured with System.nanoTime()
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    // Records a latency in microseconds
+    public void recordMicros(long micros) {
+        // Negative values can only come from clock adjustments, count them as zero
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.increment();
+        totalMicros.add(value);
+        // Only touch the max when it actually grows to keep contention low
+        if (value > maxMicros.get()) {
+            maxMicros.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    // Number of recorded values
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    // Largest recorded value in milliseconds
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    // Mean recorded value in milliseconds
+    public double getMeanMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : totalMicros.sum() / 1000.0 / count;
+    }
+
+    // Value at the given percentile (0-100) in milliseconds, reported as the upper bound of its bucket
+    public double getPercentileMillis(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        // Rank of the value we are looking for, at least the first value
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                // Never report more than the exact maximum
+                return Math.min(bucketUpperBound(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    // Maps a value to its bucket: exact below 32, otherwise shift count plus the top five mantissa bits
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // Shift that brings the value into [32, 64)
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // Largest value that falls into the given bucket
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
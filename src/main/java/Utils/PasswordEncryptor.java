@@ -1,10 +1,25 @@
 package Utils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
 import java.util.Scanner;
 
 // Command-line tool for encrypting passwords using AES.
+// Run with --reencrypt [properties file] [new secret] to rotate the secret of every encrypted entry in a file.
 public class PasswordEncryptor {
+    // File re-encrypted when --reencrypt is given without a path
+    private static final String DEFAULT_CONFIG = "src/test/resources/config.properties";
+
     public static void main(String[] args) {
+        if (args.length > 0 && "--reencrypt".equals(args[0])) {
+            reencrypt(args);
+            return;
+        }
         // Display title for the utility
         System.out.println("AES Password Encryption Tool");
         // Initialize a scanner to read user input from the console
@@ -35,4 +50,65 @@ public class PasswordEncryptor {
             System.err.println(" Encryption failed: " + e.getMessage());
         }
     }
+
+    // Re-encrypts every "<prefix>.password" entry with a new secret and stores that secret as "<prefix>.secret".
+    // All entries are decrypted before anything is written, so a wrong old secret leaves the file untouched.
+    private static void reencrypt(String[] args) {
+        Path file = Paths.get(args.length > 1 ? args[1] : DEFAULT_CONFIG);
+        String newSecret = args.length > 2 ? args[2] : null;
+        if (newSecret == null) {
+            System.out.println("Enter the new secret key for " + file + ":");
+            newSecret = new Scanner(System.in).nextLine();
+        }
+        if (newSecret == null || newSecret.trim().isEmpty()) {
+            System.err.println("Error: Secret key cannot be empty.");
+            return;
+        }
+
+        try {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+            // Entries are paired by prefix: db.password is encrypted with db.secret, email.password with email.secret
+            List<String> prefixes = new ArrayList<>();
+            for (String key : properties.stringPropertyNames()) {
+                if (key.endsWith(".secret") && properties.containsKey(prefixOf(key) + ".password")) {
+                    prefixes.add(prefixOf(key));
+                }
+            }
+            if (prefixes.isEmpty()) {
+                System.err.println("No <name>.password / <name>.secret pairs found in " + file);
+                return;
+            }
+            Properties updated = new Properties();
+            updated.putAll(properties);
+            for (String prefix : prefixes) {
+                String plain = AESUtils.decrypt(properties.getProperty(prefix + ".password"),
+                        properties.getProperty(prefix + ".secret"));
+                updated.setProperty(prefix + ".password", AESUtils.encrypt(plain, newSecret));
+                updated.setProperty(prefix + ".secret", newSecret);
+            }
+            // Write next to the original and rename over it, so an interrupted run cannot truncate the file
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "reencrypt", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    updated.store(out, "Updated configuration");
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            System.out.println("Re-encrypted " + prefixes.size() + " password(s) in " + file + ": " + prefixes);
+        } catch (IOException e) {
+            System.err.println(" Re-encryption failed: " + e.getMessage());
+        } catch (Exception e) {
+            // Typically a secret that does not match its password; nothing has been written
+            System.err.println(" Re-encryption failed, file left unchanged: " + e.getMessage());
+        }
+    }
+
+    private static String prefixOf(String secretKey) {
+        return secretKey.substring(0, secretKey.length() - ".secret".length());
+    }
 }
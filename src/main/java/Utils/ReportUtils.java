@@ -7,6 +7,7 @@ import java.io.*;
 import java.nio.file.*;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 import static Utils.FileUtils.*;
 
@@ -121,6 +122,9 @@ public final class ReportUtils {
                                 .failed { color: #F44336; }
                                 .skipped { color: #FF9800; }
                                 .meta { margin-top: 20px; color: #666; }
+                                .latency { border-collapse: collapse; width: 100%%; max-width: 600px; margin-top: 20px; }
+                                .latency th, .latency td { padding: 6px 10px; text-align: right; border: 1px solid #ddd; }
+                                .latency th:first-child, .latency td:first-child { text-align: left; }
                             </style>
                         </head>
                         <body>
@@ -141,16 +145,44 @@ public final class ReportUtils {
                                     <td>%s</td>
                                 </tr>
                             </table>
+                            %s
                             <div class="meta">
                                 <p><b>Start:</b> %s</p>
                                 <p><b>End:</b> %s</p>
+                                <p><b>HTTP Connections:</b> %s</p>
                                 <p><b>Report Generated:</b> %s</p>
                             </div>
                         </body>
                         </html>
                         """,
                 // Fill in the summary table with test statistics and timing
-                stats.total, stats.passed, stats.failed, stats.skipped, formatDuration(timing.duration), timing.start != null ? formatter.format(timing.start) : "N/A", timing.stop != null ? formatter.format(timing.stop) : "N/A", LocalDateTime.now().format(formatter));
+                stats.total, stats.passed, stats.failed, stats.skipped, formatDuration(timing.duration), buildEndpointLatencyHtml(), timing.start != null ? formatter.format(timing.start) : "N/A", timing.stop != null ? formatter.format(timing.stop) : "N/A", HttpConnectionPool.describeUsage(), LocalDateTime.now().format(formatter));
+    }
+
+    // Builds the per-endpoint latency table, or nothing when no request was recorded
+    private static String buildEndpointLatencyHtml() {
+        // Take a sorted copy of the recorded endpoints
+        Map<String, LatencyHistogram> endpoints = EndpointMetrics.snapshot();
+        if (endpoints.isEmpty()) {
+            return "";
+        }
+        // Header row of the latency table
+        StringBuilder html = new StringBuilder("""
+                <h3>API Latency (ms)</h3>
+                <table class="latency">
+                    <tr><th>Endpoint</th><th>Count</th><th>p50</th><th>p90</th><th>p99</th><th>Max</th></tr>
+                """);
+        // One row per endpoint
+        endpoints.forEach((endpoint, latency) -> html.append(String.format(
+                "    <tr><td>%s</td><td>%d</td><td>%.1f</td><td>%.1f</td><td>%.1f</td><td>%.1f</td></tr>%n",
+                escapeHtml(endpoint), latency.getCount(), latency.getPercentileMillis(50),
+                latency.getPercentileMillis(90), latency.getPercentileMillis(99), latency.getMaxMillis())));
+        return html.append("</table>").toString();
+    }
+
+    // Escapes the characters that would break the HTML markup
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
     }
 
     // Formats duration in minutes and seconds
@@ -0,0 +1,59 @@
+package Utils;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resolves encrypted configuration values (passwords) once per run and keeps the plain values in memory only.
+// An environment variable named after the key (db.password -> DB_PASSWORD) holds a plain value that replaces the
+// encrypted one, so CI can inject credentials without a secret in config.properties.
+public final class SecretsProvider {
+    // Plain values by the key and the exact encrypted text and secret they came from, so an edited or
+    // re-encrypted property is decrypted again instead of served stale
+    private static final Map<CacheKey, String> decrypted = new ConcurrentHashMap<>();
+
+    // Private constructor to prevent instantiation
+    private SecretsProvider() {
+    }
+
+    // Returns the plain value of an encrypted property, decrypting it at most once.
+    public static String get(String key, String secretKey) {
+        // An environment override needs no decryption at all
+        String override = System.getenv(environmentName(key));
+        if (override != null && !override.isEmpty()) {
+            return override;
+        }
+        String encryptedValue = ConfigReaderWriter.getPropKey(key);
+        if (encryptedValue == null || secretKey == null) {
+            throw new IllegalStateException("Secret not configured: " + key
+                    + " (set it in config.properties or the " + environmentName(key) + " environment variable)");
+        }
+        return decrypted.computeIfAbsent(new CacheKey(key, encryptedValue, secretKey), SecretsProvider::decrypt);
+    }
+
+    // Drops every cached plain value, e.g. after secrets were rotated
+    public static void clear() {
+        decrypted.clear();
+    }
+
+    // Environment variable consulted for a property key: upper case with dots and dashes as underscores
+    public static String environmentName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+
+    private static String decrypt(CacheKey cacheKey) {
+        try {
+            return AESUtils.decrypt(cacheKey.encryptedValue(), cacheKey.secretKey());
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to decrypt property: " + cacheKey.key(), e);
+        }
+    }
+
+    // Never printed with its contents: toString() names the key only
+    private record CacheKey(String key, String encryptedValue, String secretKey) {
+        @Override
+        public String toString() {
+            return "CacheKey[" + key + "]";
+        }
+    }
+}
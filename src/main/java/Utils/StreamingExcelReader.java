@@ -0,0 +1,523 @@
+package Utils;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.FormulaParseException;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.SharedFormula;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+// Streaming reader for large .xlsx sheets.
+// Rows are pulled one at a time from the sheet XML through POI's event API (XSSFReader with read-only shared
+// strings and the styles table), so memory stays constant however many rows the sheet has. Cell values are
+// rendered exactly like ExcelReader.getCellValueAsString, including the shifted formula of shared formula cells and
+// dates of 1904-based workbooks. Both iterators can be returned straight from a TestNG @DataProvider; they close the
+// file when exhausted, or call close() when stopping early.
+public final class StreamingExcelReader {
+    // StAX factory is thread-safe once configured; external entities are disabled
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+    // Shifts the tokens of a shared formula to a follower cell, as XSSFCell.getCellFormula does
+    private static final SharedFormula SHARED_FORMULA = new SharedFormula(SpreadsheetVersion.EXCEL2007);
+
+    // Private constructor to prevent instantiation
+    private StreamingExcelReader() {
+    }
+
+    // Streams data rows as header -> value maps, skipping rows missing from the sheet like readExcelAsMap
+    public static Rows<Map<String, String>> streamAsMap(String filePath, String sheetName) {
+        return new Rows<>(filePath, sheetName) {
+            @Override
+            Map<String, String> toRow(String[] values) {
+                // Keep the header order
+                Map<String, String> row = new LinkedHashMap<>(headers.length * 2);
+                for (int j = 0; j < headers.length; j++) {
+                    row.put(headers[j], values[j]);
+                }
+                return row;
+            }
+
+            @Override
+            boolean includeMissingRows() {
+                return false;
+            }
+        };
+    }
+
+    // Streams data rows as Object[] of cell values, emitting empty rows for gaps like readExcelAsArray
+    public static Rows<Object[]> streamAsArray(String filePath, String sheetName) {
+        return new Rows<>(filePath, sheetName) {
+            @Override
+            Object[] toRow(String[] values) {
+                return values;
+            }
+
+            @Override
+            boolean includeMissingRows() {
+                return true;
+            }
+        };
+    }
+
+    // Lists the sheet names of a workbook in workbook order without reading any sheet data
+    public static List<String> sheetNames(String filePath) {
+        try (OPCPackage pkg = OPCPackage.open(new File(filePath), PackageAccess.READ)) {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+            List<String> names = new ArrayList<>();
+            while (sheets.hasNext()) {
+                // Each sheet stream is opened by the iterator and must be closed
+                InputStream sheet = sheets.next();
+                names.add(sheets.getSheetName());
+                sheet.close();
+            }
+            return names;
+        } catch (Exception e) {
+            throw new ExcelStreamException("Failed to list sheets of Excel file: " + filePath, e);
+        }
+    }
+
+    // Lazy row iterator over one sheet; owns the open package until exhausted or closed
+    public abstract static class Rows<T> implements Iterator<T>, AutoCloseable {
+        // Header names, read from the first row
+        final String[] headers;
+        // Open package and sheet stream
+        private final OPCPackage pkg;
+        private final InputStream sheetStream;
+        private final XMLStreamReader xml;
+        // Lookup tables for shared strings and date styles
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final StylesTable styles;
+        private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+        // Sheet names, defined names and date system from the workbook part
+        private final WorkbookPart workbookPart;
+        private final int sheetIndex;
+        // Master cells of shared formulas by their si index, so followers can be resolved
+        private final Map<String, SharedFormulaMaster> sharedFormulas = new HashMap<>();
+        // Empty workbook with the same sheets and names, created only to parse and render shared formulas
+        private XSSFWorkbook formulaWorkbook;
+        private XSSFEvaluationWorkbook formulaContext;
+        // Next parsed row (1-based sheet row number and values), null when the sheet is exhausted
+        private int nextRowNumber;
+        private String[] nextValues;
+        // Last sheet row number handed out (starting at the header), used to fill gaps
+        private int emittedRowNumber;
+        // Whether the last row handed out exists in the sheet (false for filled gaps)
+        private boolean lastRowPresent;
+        private boolean closed;
+
+        Rows(String filePath, String sheetName) {
+            try {
+                // Open read-only so the file is never rewritten
+                pkg = OPCPackage.open(new File(filePath), PackageAccess.READ);
+            } catch (Exception e) {
+                throw new ExcelStreamException("Failed to open Excel file: " + filePath, e);
+            }
+            try {
+                XSSFReader reader = new XSSFReader(pkg);
+                sharedStrings = new ReadOnlySharedStringsTable(pkg);
+                styles = reader.getStylesTable();
+                try (InputStream workbookStream = reader.getWorkbookData()) {
+                    workbookPart = readWorkbookPart(workbookStream);
+                }
+                sheetIndex = workbookPart.sheetNames().indexOf(sheetName);
+                sheetStream = openSheet(reader, sheetName);
+                xml = XML_INPUT_FACTORY.createXMLStreamReader(sheetStream);
+                // The first row holds the headers
+                String[] headerRow = readRow(Integer.MAX_VALUE) ? nextValues : new String[0];
+                emittedRowNumber = nextRowNumber;
+                headers = trimTrailingEmpty(headerRow);
+                for (int j = 0; j < headers.length; j++) {
+                    headers[j] = headers[j] == null ? "" : headers[j];
+                }
+                // Pre-read the first data row
+                if (!readRow(headers.length)) {
+                    close();
+                }
+            } catch (ExcelStreamException e) {
+                closeQuietly();
+                throw e;
+            } catch (Exception e) {
+                closeQuietly();
+                throw new ExcelStreamException("Failed to read Excel file: " + e.getMessage(), e);
+            }
+        }
+
+        // Converts the values of one data row into the iterator's element type
+        abstract T toRow(String[] values);
+
+        // Whether rows absent from the sheet XML are returned as empty rows
+        abstract boolean includeMissingRows();
+
+        // Column headers of the sheet
+        public List<String> getHeaders() {
+            return List.of(headers);
+        }
+
+        // False when the row last returned by next() was a gap filled in by streamAsArray
+        public boolean isLastRowPresent() {
+            return lastRowPresent;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextValues != null;
+        }
+
+        @Override
+        public T next() {
+            if (nextValues == null) {
+                throw new NoSuchElementException("No more rows");
+            }
+            // A gap before the next stored row is returned as an empty row first
+            if (includeMissingRows() && nextRowNumber > emittedRowNumber + 1) {
+                emittedRowNumber++;
+                lastRowPresent = false;
+                String[] empty = new String[headers.length];
+                Arrays.fill(empty, "");
+                return toRow(empty);
+            }
+            String[] values = nextValues;
+            emittedRowNumber = nextRowNumber;
+            lastRowPresent = true;
+            try {
+                // Read ahead so hasNext() is exact and the file closes right after the last row
+                if (!readRow(headers.length)) {
+                    close();
+                }
+            } catch (XMLStreamException e) {
+                close();
+                throw new ExcelStreamException("Failed to read Excel row after row " + emittedRowNumber, e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            return toRow(values);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                nextValues = null;
+                closeQuietly();
+            }
+        }
+
+        // Advances to the next <row> element; returns false at the end of the sheet data
+        private boolean readRow(int columnCount) throws XMLStreamException {
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName())) {
+                    String rowRef = xml.getAttributeValue(null, "r");
+                    // Rows without a number follow the previous one
+                    nextRowNumber = rowRef != null ? Integer.parseInt(rowRef) : nextRowNumber + 1;
+                    nextValues = readCells(columnCount);
+                    return true;
+                }
+                if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(xml.getLocalName())) {
+                    break;
+                }
+            }
+            nextValues = null;
+            return false;
+        }
+
+        // Reads the <c> elements of the current row into a value array of the requested width
+        private String[] readCells(int columnCount) throws XMLStreamException {
+            List<String> collected = columnCount == Integer.MAX_VALUE ? new ArrayList<>() : null;
+            String[] values = collected == null ? new String[columnCount] : null;
+            int nextColumn = 0;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                    String ref = xml.getAttributeValue(null, "r");
+                    // Cells without a reference follow the previous one
+                    int column = ref != null ? new CellReference(ref).getCol() : nextColumn;
+                    nextColumn = column + 1;
+                    String value = readCell(nextRowNumber - 1, column);
+                    if (collected != null) {
+                        while (collected.size() < column) {
+                            collected.add("");
+                        }
+                        collected.add(value);
+                    } else if (column < columnCount) {
+                        values[column] = value;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                    break;
+                }
+            }
+            if (collected != null) {
+                return collected.toArray(new String[0]);
+            }
+            // Cells absent from the XML are blank
+            for (int j = 0; j < values.length; j++) {
+                if (values[j] == null) {
+                    values[j] = "";
+                }
+            }
+            return values;
+        }
+
+        // Reads one <c> element (0-based position) and renders it like ExcelReader.getCellValueAsString
+        private String readCell(int rowIndex, int column) throws XMLStreamException {
+            String type = xml.getAttributeValue(null, "t");
+            String styleIndex = xml.getAttributeValue(null, "s");
+            String rawValue = null;
+            String formula = null;
+            StringBuilder inlineText = null;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "v" -> rawValue = xml.getElementText();
+                        case "f" -> formula = readFormula(rowIndex, column);
+                        case "t" -> {
+                            if (inlineText == null) {
+                                inlineText = new StringBuilder();
+                            }
+                            inlineText.append(xml.getElementText());
+                        }
+                        default -> {
+                            // rich text runs and phonetic data are read through their nested <t> elements
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xml.getLocalName())) {
+                    break;
+                }
+            }
+            // Formula cells return the formula itself, as the usermodel reader does
+            if (formula != null) {
+                return formula;
+            }
+            if (type == null || "n".equals(type)) {
+                return rawValue == null || rawValue.isEmpty() ? "" : numericValue(rawValue, styleIndex);
+            }
+            return switch (type) {
+                // Shared string index
+                case "s" -> rawValue == null ? "" : sharedStrings.getItemAt(Integer.parseInt(rawValue)).getString().trim();
+                // Inline rich text
+                case "inlineStr" -> inlineText == null ? "" : inlineText.toString().trim();
+                // Plain string stored in the cell
+                case "str" -> rawValue == null ? "" : rawValue.trim();
+                // Booleans are stored as 1/0
+                case "b" -> String.valueOf("1".equals(rawValue));
+                // Error and unknown cells render as blank
+                default -> "";
+            };
+        }
+
+        // Reads an <f> element. Shared formula followers carry no text; like the usermodel, they get the master
+        // formula shifted by their offset from the master cell.
+        private String readFormula(int rowIndex, int column) throws XMLStreamException {
+            boolean shared = "shared".equals(xml.getAttributeValue(null, "t"));
+            String sharedIndex = xml.getAttributeValue(null, "si");
+            String range = xml.getAttributeValue(null, "ref");
+            String text = xml.getElementText();
+            if (!shared || sharedIndex == null) {
+                return text;
+            }
+            if (!text.isEmpty()) {
+                CellRangeAddress area = range != null ? CellRangeAddress.valueOf(range)
+                        : new CellRangeAddress(rowIndex, rowIndex, column, column);
+                sharedFormulas.put(sharedIndex, new SharedFormulaMaster(text, area.getFirstRow(), area.getFirstColumn()));
+                return text;
+            }
+            String cell = new CellReference(rowIndex, column).formatAsString();
+            SharedFormulaMaster master = sharedFormulas.get(sharedIndex);
+            if (master == null) {
+                throw new ExcelStreamException("Shared formula " + sharedIndex + " at " + cell + " has no master cell", null);
+            }
+            try {
+                if (master.tokens == null) {
+                    master.tokens = FormulaParser.parse(master.formula, formulaContext(), FormulaType.CELL, sheetIndex,
+                            master.firstRow);
+                }
+                Ptg[] shifted = SHARED_FORMULA.convertSharedFormulas(master.tokens, rowIndex - master.firstRow,
+                        column - master.firstColumn);
+                return FormulaRenderer.toFormulaString(formulaContext(), shifted);
+            } catch (FormulaParseException e) {
+                throw new ExcelStreamException("Cannot resolve shared formula '" + master.formula + "' at " + cell, e);
+            }
+        }
+
+        // Parsing context with the workbook's sheets and defined names, created on the first shared formula follower
+        private XSSFEvaluationWorkbook formulaContext() {
+            if (formulaContext == null) {
+                formulaWorkbook = new XSSFWorkbook();
+                workbookPart.sheetNames().forEach(formulaWorkbook::createSheet);
+                for (DefinedName definedName : workbookPart.definedNames()) {
+                    Name name = formulaWorkbook.createName();
+                    try {
+                        name.setNameName(definedName.name());
+                        if (definedName.sheetIndex() >= 0) {
+                            name.setSheetIndex(definedName.sheetIndex());
+                        }
+                        name.setRefersToFormula(definedName.formula());
+                    } catch (RuntimeException e) {
+                        // Built-in or unparsable names are left out; a formula using one fails to resolve instead
+                        formulaWorkbook.removeName(name);
+                    }
+                }
+                formulaContext = XSSFEvaluationWorkbook.create(formulaWorkbook);
+            }
+            return formulaContext;
+        }
+
+        // Numeric value as a Date string when the style is a date format, otherwise as a double
+        private String numericValue(String rawValue, String styleIndex) {
+            double value = Double.parseDouble(rawValue);
+            if (styleIndex != null && isDateStyle(Integer.parseInt(styleIndex)) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getJavaDate(value, workbookPart.date1904()).toString();
+            }
+            return String.valueOf(value);
+        }
+
+        // Date detection per style index, cached because large sheets reuse a handful of styles
+        private boolean isDateStyle(int styleIndex) {
+            return dateStyles.computeIfAbsent(styleIndex, index -> {
+                XSSFCellStyle style = styles.getStyleAt(index);
+                return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+            });
+        }
+
+        // Finds the sheet with the given name
+        private static InputStream openSheet(XSSFReader reader, String sheetName) throws Exception {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream sheet = sheets.next();
+                if (sheets.getSheetName().equals(sheetName)) {
+                    return sheet;
+                }
+                sheet.close();
+            }
+            throw new IllegalArgumentException("Sheet not found: " + sheetName);
+        }
+
+        // Header width is the last non-empty header cell, like Row.getLastCellNum on the header row
+        private static String[] trimTrailingEmpty(String[] header) {
+            int length = header.length;
+            while (length > 0 && (header[length - 1] == null || header[length - 1].isEmpty())) {
+                length--;
+            }
+            return Arrays.copyOf(header, length);
+        }
+
+        // Releases the XML reader, sheet stream and package, ignoring secondary failures
+        private void closeQuietly() {
+            try {
+                if (xml != null) {
+                    xml.close();
+                }
+                if (sheetStream != null) {
+                    sheetStream.close();
+                }
+            } catch (XMLStreamException | IOException e) {
+                System.err.println("Error closing Excel sheet stream: " + e.getMessage());
+            }
+            if (formulaWorkbook != null) {
+                try {
+                    formulaWorkbook.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing formula workbook: " + e.getMessage());
+                }
+            }
+            if (pkg != null) {
+                // Read-only packages are reverted rather than saved
+                pkg.revert();
+            }
+        }
+    }
+
+    // Reads the sheet names (in workbook order), defined names and date system from workbook.xml
+    private static WorkbookPart readWorkbookPart(InputStream workbookStream) throws XMLStreamException {
+        XMLStreamReader xml = XML_INPUT_FACTORY.createXMLStreamReader(workbookStream);
+        try {
+            boolean date1904 = false;
+            List<String> sheetNames = new ArrayList<>();
+            List<DefinedName> definedNames = new ArrayList<>();
+            while (xml.hasNext()) {
+                if (xml.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                switch (xml.getLocalName()) {
+                    case "workbookPr" -> {
+                        String flag = xml.getAttributeValue(null, "date1904");
+                        date1904 = "1".equals(flag) || "true".equals(flag);
+                    }
+                    case "sheet" -> sheetNames.add(xml.getAttributeValue(null, "name"));
+                    case "definedName" -> {
+                        String name = xml.getAttributeValue(null, "name");
+                        String localSheetId = xml.getAttributeValue(null, "localSheetId");
+                        definedNames.add(new DefinedName(name,
+                                localSheetId == null ? -1 : Integer.parseInt(localSheetId), xml.getElementText()));
+                    }
+                    default -> {
+                        // Other workbook settings do not affect cell values
+                    }
+                }
+            }
+            return new WorkbookPart(date1904, sheetNames, definedNames);
+        } finally {
+            xml.close();
+        }
+    }
+
+    private record WorkbookPart(boolean date1904, List<String> sheetNames, List<DefinedName> definedNames) {
+    }
+
+    private record DefinedName(String name, int sheetIndex, String formula) {
+    }
+
+    // Master cell of a shared formula; its tokens are parsed once, on the first follower
+    private static final class SharedFormulaMaster {
+        private final String formula;
+        private final int firstRow;
+        private final int firstColumn;
+        private Ptg[] tokens;
+
+        private SharedFormulaMaster(String formula, int firstRow, int firstColumn) {
+            this.formula = formula;
+            this.firstRow = firstRow;
+            this.firstColumn = firstColumn;
+        }
+    }
+
+    // Builds a StAX factory hardened against external entities
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    // Custom exception for streaming read failures
+    private static class ExcelStreamException extends RuntimeException {
+        // Constructor with message and cause
+        public ExcelStreamException(String message, Throwable cause) {
+            // Call the superclass constructor
+            super(message, cause);
+        }
+    }
+}
@@ -1,48 +1,200 @@
 package Utils;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
 
+// Key-value cache of test data (e.g. created entity ids) that survives between runs.
+// Values live in a concurrent in-memory index; every save appends one checksummed record to a journal file, so a
+// write costs one small append instead of rewriting the whole file. The journal is compacted once it holds mostly
+// overwritten records, and a torn record left by a crash is detected on startup and cut off.
 public class TestDataCache {
-    private static final String CACHE_FILE = "target/test-data-cache.properties";
-    private static final Properties properties = new Properties();
+    private static final Path JOURNAL_FILE = Paths.get("target/test-data-cache.journal");
+    // File written by earlier versions; imported once when no journal exists yet
+    private static final Path LEGACY_FILE = Paths.get("target/test-data-cache.properties");
+
+    // Record layout: payload length, CRC32C of the payload, then key length, key bytes and value bytes (UTF-8)
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    // Compaction starts once the journal has this many records and fewer than half of them are live
+    private static final int COMPACTION_MIN_RECORDS = 1024;
+
+    private static final Map<String, String> index = new ConcurrentHashMap<>();
+    // Guards the channel while a record is appended or the journal is swapped for a compacted one
+    private static final ReentrantLock appendLock = new ReentrantLock();
+
+    private static FileChannel journal;
+    private static int journalRecords;
 
     static {
-        loadProperties();
+        openJournal();
+        Runtime.getRuntime().addShutdownHook(new Thread(TestDataCache::close, "test-data-cache-close"));
     }
 
-    private static synchronized void loadProperties() {
-        File file = new File(CACHE_FILE);
-        if (file.exists()) {
-            try (FileReader reader = new FileReader(file)) {
-                properties.load(reader);
-            } catch (IOException e) {
-                System.err.println("Error loading test data cache: " + e.getMessage());
+    // Rebuilds the index from the journal, truncating any incomplete or corrupt tail
+    private static void openJournal() {
+        try {
+            Files.createDirectories(JOURNAL_FILE.toAbsolutePath().getParent());
+            boolean fresh = !Files.exists(JOURNAL_FILE);
+            journal = FileChannel.open(JOURNAL_FILE, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long validLength = replay();
+            if (validLength < journal.size()) {
+                System.err.println("Test data cache: discarding " + (journal.size() - validLength)
+                        + " bytes of incomplete journal records");
+                journal.truncate(validLength);
+            }
+            journal.position(validLength);
+            if (fresh && Files.exists(LEGACY_FILE)) {
+                importLegacyFile();
             }
+        } catch (IOException e) {
+            // The cache is an optimisation; tests still run with an in-memory index
+            System.err.println("Error loading test data cache: " + e.getMessage());
+            journal = null;
         }
     }
 
-    public static synchronized void save(String key, String value) {
+    // Applies every intact record to the index and returns the offset just past the last one
+    private static long replay() throws IOException {
+        // Not closed: closing the stream would close the channel
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(journal)));
+        long offset = 0;
+        while (true) {
+            int length;
+            int checksum;
+            byte[] payload;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                if (length < Integer.BYTES || length > journal.size() - offset - HEADER_BYTES) {
+                    return offset;
+                }
+                payload = in.readNBytes(length);
+            } catch (EOFException e) {
+                return offset;
+            }
+            if (payload.length != length || crc(payload, 0, length) != checksum) {
+                return offset;
+            }
+            ByteBuffer record = ByteBuffer.wrap(payload);
+            int keyLength = record.getInt();
+            if (keyLength < 0 || keyLength > record.remaining()) {
+                return offset;
+            }
+            String key = new String(payload, Integer.BYTES, keyLength, StandardCharsets.UTF_8);
+            String value = new String(payload, Integer.BYTES + keyLength, length - Integer.BYTES - keyLength,
+                    StandardCharsets.UTF_8);
+            index.put(key, value);
+            journalRecords++;
+            offset += HEADER_BYTES + length;
+        }
+    }
+
+    private static void importLegacyFile() throws IOException {
+        Properties properties = new Properties();
+        // The old cache was stored through a FileWriter (UTF-8) without escaping, so e.g. Arabic values are raw UTF-8
+        try (Reader reader = Files.newBufferedReader(LEGACY_FILE)) {
+            properties.load(reader);
+        }
+        properties.forEach((key, value) -> save((String) key, (String) value));
+    }
+
+    public static void save(String key, String value) {
         if (key == null || value == null) {
             throw new IllegalArgumentException("Key and value cannot be null");
         }
-
-        properties.setProperty(key, value);
+        // Only the append itself is serialized; the record is encoded before taking the lock
+        ByteBuffer record = encode(key, value);
+        appendLock.lock();
         try {
-            // Ensure target directory exists
-            new File("target").mkdirs();
-            try (FileWriter writer = new FileWriter(CACHE_FILE)) {
-                properties.store(writer, "Test Data Cache");
+            // Updated under the lock so the index and the order of journal records agree for the same key
+            index.put(key, value);
+            if (journal == null) {
+                return;
+            }
+            while (record.hasRemaining()) {
+                journal.write(record);
+            }
+            journalRecords++;
+            if (journalRecords >= COMPACTION_MIN_RECORDS && journalRecords > index.size() * 2) {
+                compact();
             }
         } catch (IOException e) {
             System.err.println("Error saving test data cache: " + e.getMessage());
+        } finally {
+            appendLock.unlock();
         }
     }
 
-    public static synchronized String get(String key) {
+    public static String get(String key) {
         if (key == null) {
             throw new IllegalArgumentException("Key cannot be null");
         }
-        return properties.getProperty(key);
+        return index.get(key);
+    }
+
+    // Forces the journal to disk; called at JVM exit
+    public static void close() {
+        appendLock.lock();
+        try {
+            if (journal != null) {
+                journal.force(false);
+                journal.close();
+                journal = null;
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing test data cache: " + e.getMessage());
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Writes one record per live key to a new journal and renames it over the old one; callers hold appendLock
+    private static void compact() throws IOException {
+        Path compacted = JOURNAL_FILE.resolveSibling(JOURNAL_FILE.getFileName() + ".compact");
+        int records = 0;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Map.Entry<String, String> entry : index.entrySet()) {
+                ByteBuffer record = encode(entry.getKey(), entry.getValue());
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+                records++;
+            }
+            out.force(false);
+        }
+        try {
+            Files.move(compacted, JOURNAL_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(compacted, JOURNAL_FILE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        journal.close();
+        journal = FileChannel.open(JOURNAL_FILE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        journalRecords = records;
+    }
+
+    private static ByteBuffer encode(String key, String value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Integer.BYTES + keyBytes.length + valueBytes.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + length);
+        record.putInt(length).putInt(0).putInt(keyBytes.length).put(keyBytes).put(valueBytes);
+        record.putInt(Integer.BYTES, crc(record.array(), HEADER_BYTES, length));
+        return record.flip();
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
     }
-}
\ No newline at end of file
+}
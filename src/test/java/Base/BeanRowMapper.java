@@ -0,0 +1,199 @@
+package Base;
+
+import Utils.DBConnection;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps result set rows onto a bean such as {@code ServiceData} through its setters.
+ * <p>
+ * Columns match properties by name ignoring case and underscores ({@code NameEn}, {@code name_en} and
+ * {@code nameEn} all fill {@code setNameEn}), honouring {@link JsonProperty} renames. Setters are resolved
+ * once per class; {@link DBConnection#query} and {@link DBConnection#forEachRow} {@link #bind bind} the columns
+ * to setters once per query and reuse that binding for every row, so mapping a row is a handful of direct
+ * handle calls. Columns without a matching property are ignored. The mapper holds no per-query state and may
+ * be shared by threads.
+ */
+public final class BeanRowMapper<T> implements DBConnection.RowMapper<T> {
+
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class);
+    private static final ClassValue<Map<String, Setter>> setters = new ClassValue<>() {
+        @Override
+        protected Map<String, Setter> computeValue(Class<?> type) {
+            return resolveSetters(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final Map<String, Setter> properties;
+
+    private BeanRowMapper(Class<T> type) {
+        this.type = type;
+        this.properties = setters.get(type);
+        try {
+            this.constructor = MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class))
+                    .asType(FACTORY_TYPE);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(type.getName() + " needs a public no-argument constructor", e);
+        }
+    }
+
+    public static <T> BeanRowMapper<T> of(Class<T> type) {
+        return new BeanRowMapper<>(type);
+    }
+
+    // Maps a single row; callers mapping many rows bind once instead
+    @Override
+    public T map(ResultSet resultSet) throws SQLException {
+        return bind(resultSet.getMetaData()).map(resultSet);
+    }
+
+    /**
+     * Returns a mapper for result sets with these columns, with every column already matched to its setter.
+     */
+    @Override
+    public DBConnection.RowMapper<T> bind(ResultSetMetaData metaData) throws SQLException {
+        List<Integer> columns = new ArrayList<>();
+        List<Setter> bound = new ArrayList<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            Setter setter = properties.get(normalize(metaData.getColumnLabel(i)));
+            if (setter != null) {
+                columns.add(i);
+                bound.add(setter);
+            }
+        }
+        int[] columnIndexes = columns.stream().mapToInt(Integer::intValue).toArray();
+        Setter[] setters = bound.toArray(new Setter[0]);
+        return resultSet -> {
+            T bean = newInstance();
+            for (int i = 0; i < columnIndexes.length; i++) {
+                setters[i].set(bean, resultSet, columnIndexes[i]);
+            }
+            return bean;
+        };
+    }
+
+    private T newInstance() {
+        Object instance;
+        try {
+            instance = constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create " + type.getName(), e);
+        }
+        return type.cast(instance);
+    }
+
+    static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, Setter> resolveSetters(Class<?> type) {
+        Map<String, Setter> resolved = new HashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1
+                    || !method.getName().startsWith("set") || method.getName().length() == 3
+                    || method.isAnnotationPresent(JsonIgnore.class)) {
+                continue;
+            }
+            Reader reader = readerFor(method.getParameterTypes()[0]);
+            if (reader == null) {
+                // Collections and nested objects are not single columns
+                continue;
+            }
+            JsonProperty renamed = method.getAnnotation(JsonProperty.class);
+            String name = renamed != null && !renamed.value().isEmpty() ? renamed.value() : method.getName().substring(3);
+            try {
+                MethodHandle handle = lookup.unreflect(method)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                resolved.put(normalize(name), new Setter(name, handle, reader));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot access setter " + method, e);
+            }
+        }
+        return Map.copyOf(resolved);
+    }
+
+    // Column reader per supported property type; SQL NULL maps to null for every boxed type
+    private static Reader readerFor(Class<?> type) {
+        if (type == String.class) {
+            return BeanRowMapper::readText;
+        }
+        if (type == Integer.class) {
+            return (rs, column) -> {
+                int value = rs.getInt(column);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Long.class) {
+            return (rs, column) -> {
+                long value = rs.getLong(column);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Double.class) {
+            return (rs, column) -> {
+                double value = rs.getDouble(column);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Boolean.class) {
+            return (rs, column) -> {
+                boolean value = rs.getBoolean(column);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == BigDecimal.class) {
+            return ResultSet::getBigDecimal;
+        }
+        return null;
+    }
+
+    // Dates come back in the yyyy-MM-dd form the API uses, GUIDs as their text
+    private static Object readText(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().toString();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return value == null ? null : value.toString();
+    }
+
+    @FunctionalInterface
+    private interface Reader {
+        Object read(ResultSet resultSet, int column) throws SQLException;
+    }
+
+    private record Setter(String property, MethodHandle handle, Reader reader) {
+
+        void set(Object bean, ResultSet resultSet, int column) throws SQLException {
+            Object value = reader.read(resultSet, column);
+            try {
+                handle.invokeExact(bean, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to set property '" + property + "'", e);
+            }
+        }
+    }
+}
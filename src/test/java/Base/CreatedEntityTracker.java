@@ -0,0 +1,217 @@
+package Base;
+
+import Utils.ConfigReaderWriter;
+import Utils.DBConnection;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static Base.SqlUtils.inListBatches;
+import static Base.SqlUtils.placeholders;
+import static Base.SqlUtils.quote;
+import static Base.SqlUtils.singlePrimaryKey;
+
+/**
+ * Records the ids of entities created through the API and deletes exactly those rows once the suite ends.
+ * <p>
+ * {@link #filter()} watches successful calls to registered insert endpoints and keeps the returned
+ * {@code data.row.id}. {@link #deleteTrackedEntities()} then deletes the tracked rows together with the rows
+ * referencing them, children first, following the foreign keys reported by the JDBC metadata. Deletes are
+ * parameterized {@code IN} lists of at most {@value SqlUtils#IN_LIST_BATCH_SIZE} ids, so cleanup cost grows with the
+ * number of rows the run created rather than with the table size.
+ */
+public final class CreatedEntityTracker {
+
+    // Insert endpoint (as written in the tests) to the table and key column the returned id belongs to
+    private static final Map<String, TrackedTable> INSERT_ENDPOINTS = Map.of(
+            "/Service/Insert", new TrackedTable("Services", "Id")
+    );
+
+    private static final Map<TrackedTable, Set<String>> createdIds = new ConcurrentHashMap<>();
+
+    private static final Filter TRACKING_FILTER = (requestSpec, responseSpec, context) -> {
+        Response response = context.next(requestSpec, responseSpec);
+        if ("POST".equals(requestSpec.getMethod()) && response.getStatusCode() == 200) {
+            TrackedTable table = INSERT_ENDPOINTS.get(stripQuery(requestSpec.getUserDefinedPath()));
+            if (table != null) {
+                track(table, response);
+            }
+        }
+        return response;
+    };
+
+    private CreatedEntityTracker() {
+    }
+
+    /**
+     * Filter that records created ids; register it first so recording is not part of the measured latency.
+     */
+    public static Filter filter() {
+        return TRACKING_FILTER;
+    }
+
+    /**
+     * Number of ids tracked and not yet deleted.
+     */
+    public static int trackedCount() {
+        return createdIds.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Deletes every tracked row and the rows referencing it, then commits. Ids are forgotten only after the
+     * commit succeeds, so a failed cleanup can be retried.
+     */
+    public static void deleteTrackedEntities() throws SQLException {
+        if (!ConfigReaderWriter.getBooleanPropKey("test.data.cleanup", true) || createdIds.isEmpty()) {
+            return;
+        }
+        Map<TrackedTable, List<String>> snapshot = new LinkedHashMap<>();
+        createdIds.forEach((table, ids) -> snapshot.put(table, new ArrayList<>(ids)));
+
+        long start = System.nanoTime();
+        int deleted = 0;
+        try {
+            ForeignKeyGraph graph = new ForeignKeyGraph(DBConnection.getConnection().getMetaData());
+            for (Map.Entry<TrackedTable, List<String>> entry : snapshot.entrySet()) {
+                TrackedTable table = entry.getKey();
+                deleted += deleteCascade(graph, table.name(), table.keyColumn(), entry.getValue(), new HashSet<>());
+            }
+            DBConnection.commit();
+        } catch (SQLException | RuntimeException e) {
+            DBConnection.rollback();
+            throw e;
+        } finally {
+            DBConnection.release();
+        }
+        snapshot.forEach((table, ids) -> createdIds.get(table).removeAll(ids));
+        System.out.printf("Test data cleanup: deleted %d rows for %d created entities in %d ms%n", deleted,
+                snapshot.values().stream().mapToInt(List::size).sum(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Records ids of rows created without the API, e.g. seeded with {@link ServiceSeeder}, for the same cleanup.
+     */
+    static void track(String table, String keyColumn, Collection<String> ids) {
+        createdIds.computeIfAbsent(new TrackedTable(table, keyColumn), key -> ConcurrentHashMap.newKeySet()).addAll(ids);
+    }
+
+    private static void track(TrackedTable table, Response response) {
+        String id = ResponseDecoder.ROW_ID.getString(response);
+        if (id != null && !id.isBlank()) {
+            createdIds.computeIfAbsent(table, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    // Deletes the rows of table whose column is in values, after deleting whatever references them
+    private static int deleteCascade(ForeignKeyGraph graph, String table, String column, List<?> values,
+                                     Set<String> path) throws SQLException {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        // A cycle in the foreign keys cannot be ordered; leave it to the database to report
+        String tableKey = table.toLowerCase(Locale.ROOT);
+        if (!path.add(tableKey)) {
+            return 0;
+        }
+        int deleted = 0;
+        for (ForeignKey reference : graph.referencing(table)) {
+            List<?> referencedValues = reference.referencedColumn().equalsIgnoreCase(column)
+                    ? values
+                    : selectIn(table, reference.referencedColumn(), column, values);
+            List<ForeignKey> grandChildren = graph.referencing(reference.table());
+            if (grandChildren.isEmpty()) {
+                deleted += deleteIn(reference.table(), reference.column(), referencedValues);
+            } else {
+                // The child is itself referenced, so collect its keys and cascade from there
+                String childKey = graph.primaryKey(reference.table());
+                List<?> childIds = selectIn(reference.table(), childKey, reference.column(), referencedValues);
+                deleted += deleteCascade(graph, reference.table(), childKey, childIds, path);
+            }
+        }
+        path.remove(tableKey);
+        return deleted + deleteIn(table, column, values);
+    }
+
+    private static int deleteIn(String table, String column, List<?> values) throws SQLException {
+        int deleted = 0;
+        for (List<?> batch : inListBatches(values)) {
+            deleted += DBConnection.update("DELETE FROM " + quote(table) + " WHERE " + quote(column)
+                    + " IN (" + placeholders(batch.size()) + ")", batch.toArray());
+        }
+        return deleted;
+    }
+
+    private static List<Object> selectIn(String table, String selected, String column, List<?> values)
+            throws SQLException {
+        List<Object> result = new ArrayList<>();
+        for (List<?> batch : inListBatches(values)) {
+            result.addAll(DBConnection.query("SELECT " + quote(selected) + " FROM " + quote(table) + " WHERE "
+                    + quote(column) + " IN (" + placeholders(batch.size()) + ")", rs -> rs.getObject(1), batch.toArray()));
+        }
+        return result;
+    }
+
+    private static String stripQuery(String path) {
+        int query = path.indexOf('?');
+        return query < 0 ? path : path.substring(0, query);
+    }
+
+    private record TrackedTable(String name, String keyColumn) {
+    }
+
+    /**
+     * A foreign key column of {@code table} referencing {@code referencedColumn} of another table.
+     */
+    private record ForeignKey(String table, String column, String referencedColumn) {
+    }
+
+    /**
+     * Foreign keys and primary keys read from the JDBC metadata, once per table.
+     */
+    private static final class ForeignKeyGraph {
+        private final DatabaseMetaData metaData;
+        private final Map<String, List<ForeignKey>> referencing = new HashMap<>();
+        private final Map<String, String> primaryKeys = new HashMap<>();
+
+        ForeignKeyGraph(DatabaseMetaData metaData) {
+            this.metaData = metaData;
+        }
+
+        List<ForeignKey> referencing(String table) throws SQLException {
+            String key = table.toLowerCase(Locale.ROOT);
+            List<ForeignKey> keys = referencing.get(key);
+            if (keys == null) {
+                keys = new ArrayList<>();
+                try (ResultSet rs = metaData.getExportedKeys(catalog(), null, table)) {
+                    while (rs.next()) {
+                        keys.add(new ForeignKey(rs.getString("FKTABLE_NAME"), rs.getString("FKCOLUMN_NAME"),
+                                rs.getString("PKCOLUMN_NAME")));
+                    }
+                }
+                referencing.put(key, keys);
+            }
+            return keys;
+        }
+
+        String primaryKey(String table) throws SQLException {
+            String key = table.toLowerCase(Locale.ROOT);
+            String column = primaryKeys.get(key);
+            if (column == null) {
+                column = singlePrimaryKey(metaData, table);
+                primaryKeys.put(key, column);
+            }
+            return column;
+        }
+
+        private String catalog() throws SQLException {
+            Connection connection = metaData.getConnection();
+            return connection.getCatalog();
+        }
+    }
+}
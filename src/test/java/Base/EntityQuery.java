@@ -0,0 +1,112 @@
+package Base;
+
+import Data.ServiceData;
+import Utils.DBConnection;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static Base.SqlUtils.quote;
+
+/**
+ * Typed reads of one table into beans, for asserting what the API persisted.
+ * <p>
+ * Rows are mapped with a {@link BeanRowMapper} created once per query object and bound to the columns once per
+ * query. {@link #findByIds} looks up many ids with one {@code IN} query per
+ * {@value SqlUtils#IN_LIST_BATCH_SIZE} ids instead of one query per id, and {@link #forEach} streams large
+ * results with the configured fetch size instead of buffering them. All SQL is parameterized.
+ */
+public final class EntityQuery<T> {
+
+    public static final EntityQuery<ServiceData> SERVICES = of(ServiceData.class, "Services", "Id");
+
+    private final String table;
+    private final String keyColumn;
+    private final BeanRowMapper<T> mapper;
+    private final String selectById;
+    // IN queries by placeholder count; counts are rounded up to a power of two (capped at the batch size)
+    private final Map<Integer, String> selectByIds = new ConcurrentHashMap<>();
+    private final DBConnection.RowMapper<Map.Entry<String, T>> keyedMapper;
+
+    private EntityQuery(Class<T> type, String table, String keyColumn) {
+        this.table = table;
+        this.keyColumn = keyColumn;
+        this.mapper = BeanRowMapper.of(type);
+        this.selectById = "SELECT * FROM " + quote(table) + " WHERE " + quote(keyColumn) + " = ?";
+        this.keyedMapper = new DBConnection.RowMapper<>() {
+            @Override
+            public Map.Entry<String, T> map(ResultSet resultSet) throws SQLException {
+                return bind(resultSet.getMetaData()).map(resultSet);
+            }
+
+            @Override
+            public DBConnection.RowMapper<Map.Entry<String, T>> bind(ResultSetMetaData metaData) throws SQLException {
+                DBConnection.RowMapper<T> bound = mapper.bind(metaData);
+                return rs -> Map.entry(normalizeKey(rs.getString(keyColumn)), bound.map(rs));
+            }
+        };
+    }
+
+    public static <T> EntityQuery<T> of(Class<T> type, String table, String keyColumn) {
+        return new EntityQuery<>(type, table, keyColumn);
+    }
+
+    /**
+     * Returns the row with the given key, or null when there is none.
+     */
+    public T findById(Object id) throws SQLException {
+        return DBConnection.queryFirst(selectById, mapper, id);
+    }
+
+    /**
+     * Returns the rows with the given keys, keyed by the lower-cased key text (GUIDs come back upper-cased from
+     * SQL Server). Keys without a row are absent from the map.
+     */
+    public Map<String, T> findByIds(Collection<?> ids) throws SQLException {
+        Map<String, T> found = new HashMap<>(ids.size() * 2);
+        for (List<?> batch : SqlUtils.inListBatches(new ArrayList<>(new LinkedHashSet<>(ids)))) {
+            // Pad the batch by repeating its last id, so a few statement shapes serve every lookup size;
+            // duplicates in IN do not change the result
+            int placeholders = Math.min(SqlUtils.IN_LIST_BATCH_SIZE, Integer.highestOneBit(batch.size() - 1) << 1);
+            Object[] params = new Object[Math.max(1, placeholders)];
+            for (int i = 0; i < params.length; i++) {
+                params[i] = batch.get(Math.min(i, batch.size() - 1));
+            }
+            for (Map.Entry<String, T> row : DBConnection.query(selectByIds(params.length), keyedMapper, params)) {
+                found.put(row.getKey(), row.getValue());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Streams the rows matching {@code whereClause} (e.g. {@code "Code LIKE ?"}, or blank for all rows) to the
+     * action; returns the number of rows.
+     */
+    public long forEach(String whereClause, Consumer<? super T> action, Object... params) throws SQLException {
+        String sql = "SELECT * FROM " + quote(table)
+                + (whereClause == null || whereClause.isBlank() ? "" : " WHERE " + whereClause);
+        return DBConnection.forEachRow(sql, mapper, action, params);
+    }
+
+    private String selectByIds(int placeholders) {
+        return selectByIds.computeIfAbsent(placeholders, count -> "SELECT * FROM " + quote(table) + " WHERE "
+                + quote(keyColumn) + " IN (" + SqlUtils.placeholders(count) + ")");
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    static String normalizeKey(String key) {
+        return key == null ? null : key.toLowerCase(Locale.ROOT);
+    }
+}
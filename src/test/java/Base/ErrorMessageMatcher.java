@@ -0,0 +1,140 @@
+package Base;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Pattern;
+
+/**
+ * Expected validation messages compiled once into a matcher per column.
+ * <p>
+ * Literal entries are normalized (trimmed, lower case) and merged into one Aho-Corasick automaton, so
+ * checking whether a message contains any of them is a single pass over the message. Entries prefixed
+ * with {@code regex:} are compiled once, case-insensitive, and tried only when no literal matched.
+ */
+final class ErrorMessageMatcher {
+
+    private static final String REGEX_PREFIX = "regex:";
+
+    private final Map<String, ColumnMatcher> columns;
+
+    private ErrorMessageMatcher(Map<String, ColumnMatcher> columns) {
+        this.columns = columns;
+    }
+
+    static ErrorMessageMatcher compile(Map<String, List<String>> expectedMessages) {
+        Map<String, ColumnMatcher> columns = new HashMap<>();
+        expectedMessages.forEach((column, messages) -> columns.put(column, new ColumnMatcher(messages)));
+        return new ErrorMessageMatcher(Map.copyOf(columns));
+    }
+
+    boolean hasColumn(String column) {
+        return columns.containsKey(column);
+    }
+
+    /**
+     * True when the message contains one of the column's literals or matches one of its patterns.
+     */
+    boolean matches(String column, String message) {
+        ColumnMatcher matcher = columns.get(column);
+        return matcher != null && matcher.matches(normalize(message));
+    }
+
+    static String normalize(String message) {
+        return message.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class ColumnMatcher {
+        private final Node root = new Node();
+        private final List<Pattern> patterns = new ArrayList<>();
+        private boolean hasLiterals;
+
+        ColumnMatcher(List<String> messages) {
+            for (String message : messages) {
+                if (message.startsWith(REGEX_PREFIX)) {
+                    patterns.add(Pattern.compile(message.substring(REGEX_PREFIX.length()), Pattern.CASE_INSENSITIVE));
+                } else {
+                    addLiteral(normalize(message));
+                }
+            }
+            buildFailureLinks();
+        }
+
+        boolean matches(String message) {
+            if (hasLiterals && containsLiteral(message)) {
+                return true;
+            }
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(message).find()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void addLiteral(String literal) {
+            hasLiterals = true;
+            Node node = root;
+            for (int i = 0; i < literal.length(); i++) {
+                node = node.children.computeIfAbsent(literal.charAt(i), c -> new Node());
+            }
+            node.terminal = true;
+        }
+
+        // Breadth-first pass linking each node to its longest proper suffix that is also a prefix
+        private void buildFailureLinks() {
+            Queue<Node> queue = new ArrayDeque<>();
+            root.failure = root;
+            for (Node child : root.children.values()) {
+                child.failure = root;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                Node node = queue.remove();
+                for (Map.Entry<Character, Node> edge : node.children.entrySet()) {
+                    Node child = edge.getValue();
+                    Node fallback = node.failure;
+                    while (fallback != root && !fallback.children.containsKey(edge.getKey())) {
+                        fallback = fallback.failure;
+                    }
+                    Node target = fallback.children.get(edge.getKey());
+                    child.failure = target != null && target != child ? target : root;
+                    // A node also matches when any of its suffixes ends a literal
+                    child.terminal |= child.failure.terminal;
+                    queue.add(child);
+                }
+            }
+        }
+
+        private boolean containsLiteral(String message) {
+            // The empty literal matches everything
+            if (root.terminal) {
+                return true;
+            }
+            Node node = root;
+            for (int i = 0; i < message.length(); i++) {
+                char c = message.charAt(i);
+                Node next = node.children.get(c);
+                while (next == null && node != root) {
+                    node = node.failure;
+                    next = node.children.get(c);
+                }
+                node = next != null ? next : root;
+                if (node.terminal) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private Node failure;
+        private boolean terminal;
+    }
+}
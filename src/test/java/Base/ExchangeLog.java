@@ -0,0 +1,156 @@
+package Base;
+
+import Utils.ConfigReaderWriter;
+import io.restassured.filter.Filter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, in-memory record of the HTTP exchanges made by one test method.
+ * <p>
+ * Exchanges are kept in a ring buffer bound to the executing thread and only written to disk, on a
+ * background writer thread, when {@link #flushAsync(Path)} is called - normally when the test fails or
+ * {@code http.log.verbose=true}. Only references to the raw request and response are kept; they are formatted
+ * on the writer thread, so passing tests pay neither for formatting nor for disk writes on the request path.
+ */
+public final class ExchangeLog {
+
+    private static final int CAPACITY = ConfigReaderWriter.getIntPropKey("http.log.buffer.size", 50);
+    private static final ThreadLocal<ExchangeLog> current = new ThreadLocal<>();
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "exchange-log-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Filter FILTER = (requestSpec, responseSpec, context) -> {
+        Response response = context.next(requestSpec, responseSpec);
+        ExchangeLog log = current.get();
+        if (log != null) {
+            log.record(new Exchange(requestSpec.getMethod(), requestSpec.getURI(), requestSpec.getHeaders(),
+                    requestSpec.getBody(), response));
+        }
+        return response;
+    };
+
+    private final String testName;
+    private final ArrayDeque<Exchange> exchanges = new ArrayDeque<>(Math.min(CAPACITY, 64));
+    private int dropped;
+
+    private ExchangeLog(String testName) {
+        this.testName = testName;
+    }
+
+    /**
+     * Starts a fresh log for the test running on the current thread.
+     */
+    public static ExchangeLog start(String testName) {
+        ExchangeLog log = new ExchangeLog(testName);
+        current.set(log);
+        return log;
+    }
+
+    /**
+     * Unbinds and returns the current thread's log, or null when none was started.
+     */
+    public static ExchangeLog end() {
+        ExchangeLog log = current.get();
+        current.remove();
+        return log;
+    }
+
+    /**
+     * Shared filter that records every exchange into the current thread's log.
+     */
+    public static Filter filter() {
+        return FILTER;
+    }
+
+    /**
+     * Waits for queued log writes, e.g. before the report is generated.
+     */
+    public static void awaitPendingWrites(long timeout, TimeUnit unit) {
+        try {
+            writer.submit(() -> { }).get(timeout, unit);
+        } catch (Exception e) {
+            System.err.println("Timed out waiting for exchange logs to be written: " + e.getMessage());
+        }
+    }
+
+    public boolean isEmpty() {
+        return exchanges.isEmpty();
+    }
+
+    /**
+     * Writes the buffered exchanges to the given file on the background writer thread.
+     */
+    public Future<?> flushAsync(Path logFile) {
+        List<Exchange> snapshot = new ArrayList<>(exchanges);
+        int droppedCount = dropped;
+        exchanges.clear();
+        return writer.submit(() -> write(logFile, snapshot, droppedCount));
+    }
+
+    private void record(Exchange exchange) {
+        if (exchanges.size() == CAPACITY) {
+            exchanges.removeFirst();
+            dropped++;
+        }
+        exchanges.addLast(exchange);
+    }
+
+    private void write(Path logFile, List<Exchange> snapshot, int droppedCount) {
+        try (BufferedWriter out = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8)) {
+            out.write("Test: " + testName);
+            out.newLine();
+            if (droppedCount > 0) {
+                out.write(String.format("(%d earlier exchanges dropped, buffer holds the last %d)", droppedCount, CAPACITY));
+                out.newLine();
+            }
+            for (Exchange exchange : snapshot) {
+                out.newLine();
+                out.write(format(exchange));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write exchange log " + logFile + ": " + e.getMessage());
+        }
+    }
+
+    private static String format(Exchange exchange) {
+        StringBuilder text = new StringBuilder(512)
+                .append("Request method:\t").append(exchange.method()).append('\n')
+                .append("Request URI:\t").append(exchange.uri()).append('\n');
+        appendHeaders(text, "Headers", exchange.requestHeaders());
+        Object body = exchange.requestBody();
+        Response response = exchange.response();
+        text.append("Body:\n").append(body instanceof byte[] bytes ? "<" + bytes.length + " bytes>" : body).append('\n')
+                .append('\n')
+                .append(response.getStatusLine()).append('\n');
+        appendHeaders(text, "Response headers", response.getHeaders());
+        return text.append(response.asString()).append('\n').toString();
+    }
+
+    private static void appendHeaders(StringBuilder text, String title, Iterable<Header> headers) {
+        text.append(title).append(":\n");
+        for (Header header : headers) {
+            text.append('\t').append(header.getName()).append('=').append(header.getValue()).append('\n');
+        }
+    }
+
+    // One exchange as sent and received; the response body was buffered by the connection release filter
+    private record Exchange(String method, String uri, Headers requestHeaders, Object requestBody, Response response) {
+    }
+}
@@ -0,0 +1,238 @@
+package Base;
+
+import Utils.LatencyHistogram;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator: a fixed number of virtual users, each sending its next request as soon as
+ * the previous one completes (plus optional think time) until the duration elapses.
+ * <p>
+ * Requests are registered as named actions; each user cycles through them. Latency, status codes and
+ * errors are aggregated per endpoint. An error is a transport failure or an HTTP 5xx response; 4xx
+ * responses are expected outcomes of the negative scenarios and are only counted per status.
+ */
+public class LoadTestHarness {
+
+    private final int users;
+    private final Duration duration;
+    private final Duration thinkTime;
+    private final List<Action> actions = new ArrayList<>();
+    private final Map<String, EndpointStats> statsByEndpoint = new ConcurrentHashMap<>();
+
+    public LoadTestHarness(int users, Duration duration, Duration thinkTime) {
+        if (users < 1) {
+            throw new IllegalArgumentException("At least one virtual user is required");
+        }
+        this.users = users;
+        this.duration = duration;
+        this.thinkTime = thinkTime;
+    }
+
+    /**
+     * Sends one request for the given virtual user and iteration; both are unique per call site so they
+     * can be used to build unique payloads.
+     */
+    @FunctionalInterface
+    public interface RequestSender {
+        Response send(int user, long iteration);
+    }
+
+    public LoadTestHarness addAction(String endpoint, RequestSender sender) {
+        actions.add(new Action(endpoint, sender));
+        statsByEndpoint.computeIfAbsent(endpoint, EndpointStats::new);
+        return this;
+    }
+
+    /**
+     * Runs every virtual user on its own virtual thread and blocks until the duration has elapsed.
+     */
+    public LoadTestResult run() throws InterruptedException {
+        if (actions.isEmpty()) {
+            throw new IllegalStateException("No load test actions registered");
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                int userIndex = user;
+                executor.submit(() -> runUser(userIndex, deadline));
+            }
+        }
+        return new LoadTestResult(users, Duration.ofNanos(System.nanoTime() - start), List.copyOf(statsByEndpoint.values()));
+    }
+
+    private void runUser(int user, long deadline) {
+        long iteration = 0;
+        while (System.nanoTime() < deadline) {
+            Action action = actions.get((int) (iteration % actions.size()));
+            EndpointStats stats = statsByEndpoint.get(action.endpoint());
+            long sent = System.nanoTime();
+            try {
+                Response response = action.sender().send(user, iteration);
+                stats.record(response.getStatusCode(), System.nanoTime() - sent);
+            } catch (Exception e) {
+                stats.recordFailure(e, System.nanoTime() - sent);
+            }
+            iteration++;
+            if (!thinkTime.isZero() && !pause()) {
+                return;
+            }
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(thinkTime);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record Action(String endpoint, RequestSender sender) {
+    }
+
+    /**
+     * Aggregated measurements for one endpoint.
+     */
+    public static class EndpointStats {
+        private final String endpoint;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> statusCounts = new ConcurrentSkipListMap<>();
+        private final Map<String, LongAdder> failureTypes = new ConcurrentHashMap<>();
+
+        EndpointStats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void record(int statusCode, long nanos) {
+            latency.recordNanos(nanos);
+            statusCounts.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+            if (statusCode >= 500) {
+                errors.increment();
+            }
+        }
+
+        void recordFailure(Exception e, long nanos) {
+            latency.recordNanos(nanos);
+            errors.increment();
+            failureTypes.computeIfAbsent(e.getClass().getSimpleName(), type -> new LongAdder()).increment();
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public long getRequests() {
+            return latency.getCount();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+    }
+
+    /**
+     * Outcome of a load run, printable as a table and writable as JSON.
+     */
+    public static class LoadTestResult {
+        private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        private static final double[] PERCENTILES = {50, 90, 95, 99};
+
+        private final int users;
+        private final Duration elapsed;
+        private final List<EndpointStats> endpoints;
+
+        LoadTestResult(int users, Duration elapsed, List<EndpointStats> endpoints) {
+            this.users = users;
+            this.elapsed = elapsed;
+            this.endpoints = endpoints;
+        }
+
+        public List<EndpointStats> getEndpoints() {
+            return endpoints;
+        }
+
+        public double requestsPerSecond(EndpointStats stats) {
+            double seconds = elapsed.toNanos() / 1_000_000_000.0;
+            return seconds == 0 ? 0 : stats.getRequests() / seconds;
+        }
+
+        public double errorRate(EndpointStats stats) {
+            return stats.getRequests() == 0 ? 0 : (double) stats.getErrors() / stats.getRequests();
+        }
+
+        public String toTable() {
+            StringBuilder table = new StringBuilder(String.format(
+                    "Load test: %d users, %.1f s%n%-28s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+                    users, elapsed.toMillis() / 1000.0,
+                    "Endpoint", "Requests", "Req/s", "Errors", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+            for (EndpointStats stats : endpoints) {
+                LatencyHistogram latency = stats.getLatency();
+                table.append(String.format("%-28s %9d %9.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                        stats.getEndpoint(), stats.getRequests(), requestsPerSecond(stats), errorRate(stats) * 100,
+                        latency.getPercentileMillis(50), latency.getPercentileMillis(90),
+                        latency.getPercentileMillis(95), latency.getPercentileMillis(99), latency.getMaxMillis()));
+            }
+            return table.toString();
+        }
+
+        public String toJson() throws IOException {
+            ObjectNode root = mapper.createObjectNode()
+                    .put("users", users)
+                    .put("durationMs", elapsed.toMillis());
+            ArrayNode endpointNodes = root.putArray("endpoints");
+            for (EndpointStats stats : endpoints) {
+                ObjectNode node = endpointNodes.addObject()
+                        .put("endpoint", stats.getEndpoint())
+                        .put("requests", stats.getRequests())
+                        .put("requestsPerSecond", requestsPerSecond(stats))
+                        .put("errors", stats.getErrors())
+                        .put("errorRate", errorRate(stats));
+                ObjectNode latencyNode = node.putObject("latencyMs")
+                        .put("mean", stats.getLatency().getMeanMillis())
+                        .put("max", stats.getLatency().getMaxMillis());
+                for (double percentile : PERCENTILES) {
+                    latencyNode.put("p" + (int) percentile, stats.getLatency().getPercentileMillis(percentile));
+                }
+                ObjectNode statusNode = node.putObject("statusCodes");
+                stats.statusCounts.forEach((status, count) -> statusNode.put(String.valueOf(status), count.sum()));
+                ObjectNode failureNode = node.putObject("failures");
+                stats.failureTypes.forEach((type, count) -> failureNode.put(type, count.sum()));
+            }
+            return mapper.writeValueAsString(root);
+        }
+
+        public Path writeTo(Path directory, String name) throws IOException {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(name + "-summary.json");
+            Files.writeString(file, toJson());
+            return file;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package Base;
+
+import Utils.ConfigReaderWriter;
+import org.testng.IAlterSuiteListener;
+import org.testng.IExecutorServiceFactory;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the parallel execution settings to every suite before it runs.
+ * <p>
+ * Settings are read through {@link ConfigReaderWriter#getPropKey(String, String)}, so each one can be
+ * given in config.properties or overridden on the command line:
+ * <ul>
+ *     <li>{@code parallel.mode} - none, methods, classes, tests or instances (default: keep the suite XML value)</li>
+ *     <li>{@code parallel.thread.count} - worker count, 0 means one per available core</li>
+ *     <li>{@code parallel.dataprovider.thread.count} - workers for {@code parallel = true} data providers</li>
+ * </ul>
+ * Example: {@code mvn test -Dparallel.mode=methods -Dparallel.thread.count=16}
+ * <p>
+ * Workers run on virtual threads when TestNG is started with
+ * {@code -threadpoolfactoryclass Base.ParallelExecutionListener$VirtualThreadExecutorServiceFactory} (see the
+ * README). Surefire offers no way to pass that option and a listener cannot swap the executor factory of a run
+ * that has already started, so {@code mvn test} always uses platform threads.
+ */
+public class ParallelExecutionListener implements IAlterSuiteListener {
+
+    private static final String MODE_KEY = "parallel.mode";
+    private static final String THREAD_COUNT_KEY = "parallel.thread.count";
+    private static final String DATA_PROVIDER_THREAD_COUNT_KEY = "parallel.dataprovider.thread.count";
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String mode = ConfigReaderWriter.getPropKey(MODE_KEY, null);
+        int threadCount = resolveThreadCount();
+
+        if (mode != null) {
+            XmlSuite.ParallelMode parallelMode = XmlSuite.ParallelMode.getValidParallel(mode);
+            suites.forEach(suite -> applyParallelMode(suite, parallelMode, threadCount));
+        }
+
+        int dataProviderThreads = ConfigReaderWriter.getIntPropKey(DATA_PROVIDER_THREAD_COUNT_KEY, 0);
+        if (dataProviderThreads > 0) {
+            suites.forEach(suite -> suite.setDataProviderThreadCount(dataProviderThreads));
+        }
+    }
+
+    private void applyParallelMode(XmlSuite suite, XmlSuite.ParallelMode parallelMode, int threadCount) {
+        suite.setParallel(parallelMode);
+        suite.setThreadCount(threadCount);
+        for (XmlTest test : suite.getTests()) {
+            test.setParallel(parallelMode);
+            test.setThreadCount(threadCount);
+        }
+        System.out.printf("Suite '%s' running with parallel=%s, thread-count=%d%n",
+                suite.getName(), parallelMode, threadCount);
+    }
+
+    private int resolveThreadCount() {
+        int configured = ConfigReaderWriter.getIntPropKey(THREAD_COUNT_KEY, 0);
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Worker pool factory that keeps TestNG's pool sizing and queue but starts every worker as a
+     * virtual thread, so tests blocked on HTTP or JDBC round trips do not pin platform threads.
+     */
+    public static class VirtualThreadExecutorServiceFactory implements IExecutorServiceFactory {
+
+        @Override
+        public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                      BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+            ThreadFactory virtualThreadFactory = Thread.ofVirtual().name("TestNG-virtual-", 0).factory();
+            return new ThreadPoolExecutor(corePoolSize, maximumPoolSize, keepAliveTime, unit,
+                    workQueue, virtualThreadFactory);
+        }
+    }
+}
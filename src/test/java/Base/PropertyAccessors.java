@@ -0,0 +1,115 @@
+package Base;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON property getters of a request class, resolved once per class into method handles.
+ * <p>
+ * Property names follow the Jackson defaults used to serialize the request: bean getter names, renamed by
+ * {@link JsonProperty} and skipped by {@link JsonIgnore}. Reading a property afterwards is a direct handle
+ * invocation with no reflective lookup.
+ */
+final class PropertyAccessors {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final ClassValue<PropertyAccessors> cache = new ClassValue<>() {
+        @Override
+        protected PropertyAccessors computeValue(Class<?> type) {
+            return new PropertyAccessors(type);
+        }
+    };
+
+    private final Map<String, Accessor> accessors;
+    private final List<Accessor> ordered;
+
+    private PropertyAccessors(Class<?> type) {
+        Map<String, Accessor> resolved = new LinkedHashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        List<Method> getters = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (isGetter(method) && !method.isAnnotationPresent(JsonIgnore.class)) {
+                getters.add(method);
+            }
+        }
+        // getMethods() order is unspecified; sort so failure reports are stable
+        getters.sort(Comparator.comparing(Method::getName));
+        for (Method getter : getters) {
+            String name = propertyName(getter);
+            try {
+                MethodHandle handle = lookup.unreflect(getter).asType(GETTER_TYPE);
+                resolved.put(name, new Accessor(name, getter.getReturnType(), handle));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot access getter " + getter, e);
+            }
+        }
+        this.accessors = Map.copyOf(resolved);
+        this.ordered = List.copyOf(resolved.values());
+    }
+
+    static PropertyAccessors of(Class<?> type) {
+        return cache.get(type);
+    }
+
+    List<Accessor> all() {
+        return ordered;
+    }
+
+    Accessor get(String propertyName) {
+        Accessor accessor = accessors.get(propertyName);
+        if (accessor == null) {
+            throw new IllegalArgumentException("No readable property '" + propertyName + "'");
+        }
+        return accessor;
+    }
+
+    private static boolean isGetter(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                || method.getDeclaringClass() == Object.class) {
+            return false;
+        }
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return method.getReturnType() != void.class;
+        }
+        return name.startsWith("is") && name.length() > 2
+                && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class);
+    }
+
+    private static String propertyName(Method getter) {
+        JsonProperty renamed = getter.getAnnotation(JsonProperty.class);
+        if (renamed != null && !renamed.value().isEmpty()) {
+            return renamed.value();
+        }
+        String name = getter.getName();
+        String bare = name.substring(name.startsWith("is") ? 2 : 3);
+        return Character.toLowerCase(bare.charAt(0)) + bare.substring(1);
+    }
+
+    /**
+     * One readable property.
+     */
+    record Accessor(String name, Class<?> type, MethodHandle handle) {
+
+        Object read(Object target) {
+            try {
+                return handle.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to read property '" + name + "'", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package Base;
+
+import Validators.ValidationErrorIndex;
+import Validators.ValidationResponse;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes API response bodies once and shares the result between all assertions of a test.
+ * <p>
+ * Each body is parsed into a Jackson tree with one shared, pre-configured reader. The tree, the typed
+ * {@link ValidationResponse} views and the {@link ValidationErrorIndex} built from it are memoized per
+ * {@link Response} instance (weakly, so they go away with the response) in a concurrent map, so parallel tests
+ * never wait on each other to look up a body. Field lookups use {@link ResponsePath}, compiled once into a JSON pointer.
+ */
+public final class ResponseDecoder {
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ObjectReader treeReader = mapper.reader();
+    private static final JsonPointer DATA = JsonPointer.compile("/data");
+
+    // Typed readers of ValidationResponse<T>, one per row type
+    private static final Map<Class<?>, ObjectReader> validationReaders = new ConcurrentHashMap<>();
+    // Decoded bodies keyed weakly by response identity (RestAssured responses do not override equals)
+    private static final Map<ResponseKey, DecodedBody> decodedBodies = new ConcurrentHashMap<>();
+    // Keys of responses that have been garbage collected, purged before each new entry
+    private static final ReferenceQueue<Response> collectedResponses = new ReferenceQueue<>();
+
+    /** Path of the created or fetched entity id. */
+    public static final ResponsePath ROW_ID = ResponsePath.compile("data.row.id");
+
+    private ResponseDecoder() {
+    }
+
+    /**
+     * Returns the parsed body, parsing it on first use.
+     */
+    public static JsonNode tree(Response response) {
+        return decoded(response).tree;
+    }
+
+    /**
+     * Returns the {@code data} envelope of the response with its row bound to {@code rowType}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ValidationResponse<T> validationResponse(Response response, Class<T> rowType) {
+        DecodedBody body = decoded(response);
+        return (ValidationResponse<T>) body.envelopes.computeIfAbsent(rowType, type -> {
+            try {
+                return validationReader(type).readValue(body.tree.at(DATA));
+            } catch (IOException e) {
+                throw new ResponseDecodingException("Failed to decode response envelope as ValidationResponse<"
+                        + type.getSimpleName() + ">", e);
+            }
+        });
+    }
+
+    /**
+     * Returns the column-keyed index of the response's validation errors, built once per response.
+     */
+    public static ValidationErrorIndex errorIndex(Response response) {
+        DecodedBody body = decoded(response);
+        ValidationErrorIndex index = body.errorIndex;
+        if (index == null) {
+            // Building twice under a race is harmless, both indexes are equal
+            index = ValidationErrorIndex.of(validationResponse(response, Object.class).getErrors());
+            body.errorIndex = index;
+        }
+        return index;
+    }
+
+    private static DecodedBody decoded(Response response) {
+        DecodedBody body = decodedBodies.get(new ResponseKey(response, null));
+        if (body == null) {
+            purgeCollected();
+            // A racing thread may parse the same body; the first one stored wins
+            DecodedBody parsed = new DecodedBody(parse(response));
+            DecodedBody raced = decodedBodies.putIfAbsent(new ResponseKey(response, collectedResponses), parsed);
+            body = raced != null ? raced : parsed;
+        }
+        return body;
+    }
+
+    private static void purgeCollected() {
+        Reference<? extends Response> collected;
+        while ((collected = collectedResponses.poll()) != null) {
+            decodedBodies.remove(collected);
+        }
+    }
+
+    private static JsonNode parse(Response response) {
+        byte[] bytes = response.asByteArray();
+        if (bytes.length == 0) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return treeReader.readTree(bytes);
+        } catch (IOException e) {
+            throw new ResponseDecodingException("Response body is not valid JSON: " + response.asString(), e);
+        }
+    }
+
+    private static ObjectReader validationReader(Class<?> rowType) {
+        return validationReaders.computeIfAbsent(rowType, type -> {
+            JavaType javaType = mapper.getTypeFactory().constructParametricType(ValidationResponse.class, type);
+            return mapper.readerFor(javaType);
+        });
+    }
+
+    /**
+     * Weak reference compared by the identity of its response. Once the response is collected the key only
+     * equals itself, which is how {@link #purgeCollected()} removes it.
+     */
+    private static final class ResponseKey extends WeakReference<Response> {
+        private final int hash;
+
+        private ResponseKey(Response response, ReferenceQueue<Response> queue) {
+            super(response, queue);
+            this.hash = System.identityHashCode(response);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            Response response = get();
+            return response != null && other instanceof ResponseKey key && response == key.get();
+        }
+    }
+
+    private static final class DecodedBody {
+        private final JsonNode tree;
+        private final Map<Class<?>, ValidationResponse<?>> envelopes = new ConcurrentHashMap<>();
+        private volatile ValidationErrorIndex errorIndex;
+
+        private DecodedBody(JsonNode tree) {
+            this.tree = tree;
+        }
+    }
+
+    /**
+     * Dotted path such as {@code data.row.id}, compiled once and evaluated against the decoded tree.
+     * Numeric segments index into arrays, e.g. {@code data.errors.0.column}.
+     */
+    public static final class ResponsePath {
+        private final String expression;
+        private final JsonPointer pointer;
+
+        private ResponsePath(String expression) {
+            this.expression = expression;
+            this.pointer = JsonPointer.compile("/" + expression.replace("~", "~0").replace("/", "~1").replace('.', '/'));
+        }
+
+        public static ResponsePath compile(String expression) {
+            return new ResponsePath(expression);
+        }
+
+        /**
+         * Returns the node at this path, or a missing node when any segment is absent.
+         */
+        public JsonNode node(Response response) {
+            return tree(response).at(pointer);
+        }
+
+        /**
+         * Returns the value as text like {@code jsonPath().getString()}: null when absent or JSON null.
+         */
+        public String getString(Response response) {
+            JsonNode node = node(response);
+            if (node.isMissingNode() || node.isNull()) {
+                return null;
+            }
+            return node.isValueNode() ? node.asText() : node.toString();
+        }
+
+        @Override
+        public String toString() {
+            return expression;
+        }
+    }
+
+    private static class ResponseDecodingException extends RuntimeException {
+        public ResponseDecodingException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
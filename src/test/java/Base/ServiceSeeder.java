@@ -0,0 +1,404 @@
+package Base;
+
+import Data.ServiceData;
+import Data.ServiceDataGenerator;
+import Utils.ConfigReaderWriter;
+import Utils.DBConnection;
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkData;
+import com.microsoft.sqlserver.jdbc.ISQLServerConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Inserts generated services straight into the database, for tests that need many existing rows.
+ * <p>
+ * Rows come from a {@link ServiceDataGenerator} (invalid payloads are skipped) and are written to
+ * {@code Services} and {@code ServiceCustomPropertiesLinkage} with {@link SQLServerBulkCopy} on SQL Server, or
+ * with batched multi-row {@code INSERT}s on any other database. Destination columns are read from the JDBC
+ * metadata and matched to {@link ServiceData} properties by name; columns with no matching property are left to
+ * their defaults. Everything is committed once, and the seeded ids are handed to {@link CreatedEntityTracker} so
+ * the suite cleanup removes them again. Safe to call from {@code @BeforeSuite}.
+ */
+public final class ServiceSeeder {
+
+    private static final String SERVICES_TABLE = "Services";
+    private static final String LINKAGE_TABLE = "ServiceCustomPropertiesLinkage";
+    private static final int BULK_COPY_BATCH_SIZE = ConfigReaderWriter.getIntPropKey("seed.batch.size", 5000);
+    private static final int INSERTS_PER_JDBC_BATCH = 10;
+
+    private ServiceSeeder() {
+    }
+
+    /**
+     * Seeds the valid services of {@code shard} and their custom property links.
+     */
+    public static SeedResult seedServices(ServiceDataGenerator generator, ServiceDataGenerator.Shard shard)
+            throws SQLException {
+        long start = System.nanoTime();
+        List<String> seededIds = new ArrayList<>();
+        long links = 0;
+        boolean bulkCopy;
+        try {
+            Connection connection = DBConnection.getConnection();
+            DatabaseMetaData metaData = connection.getMetaData();
+            bulkCopy = connection.isWrapperFor(ISQLServerConnection.class);
+
+            TablePlan<SeedRow> services = servicesPlan(metaData);
+            TablePlan<String[]> linkage = linkagePlan(metaData);
+
+            // The generator is deterministic, so both passes see the same rows without holding them in memory
+            write(connection, bulkCopy, services, () -> serviceRows(generator, shard, seededIds));
+            links = write(connection, bulkCopy, linkage, () -> linkRows(generator, shard));
+            DBConnection.commit();
+        } catch (SQLException | RuntimeException e) {
+            DBConnection.rollback();
+            throw e;
+        } finally {
+            DBConnection.release();
+        }
+        CreatedEntityTracker.track(SERVICES_TABLE, "Id", seededIds);
+
+        SeedResult result = new SeedResult(seededIds.size(), links, (System.nanoTime() - start) / 1_000_000,
+                bulkCopy ? "bulk copy" : "JDBC batch");
+        System.out.println("Seeded " + result);
+        return result;
+    }
+
+    // Services columns: the generated id for the primary key, ServiceData properties for the rest
+    private static TablePlan<SeedRow> servicesPlan(DatabaseMetaData metaData) throws SQLException {
+        List<TableColumn> columns = TableColumn.read(metaData, SERVICES_TABLE);
+        String keyColumn = SqlUtils.singlePrimaryKey(metaData, SERVICES_TABLE);
+        Map<String, PropertyAccessors.Accessor> properties = new HashMap<>();
+        for (PropertyAccessors.Accessor accessor : PropertyAccessors.of(ServiceData.class).all()) {
+            properties.put(BeanRowMapper.normalize(accessor.name()), accessor);
+        }
+        TablePlan<SeedRow> plan = new TablePlan<>(SERVICES_TABLE);
+        for (TableColumn column : columns) {
+            if (column.name.equalsIgnoreCase(keyColumn)) {
+                if (column.autoIncrement) {
+                    throw new SQLException("Cannot seed " + SERVICES_TABLE + ": identity key " + keyColumn
+                            + " is not supported, seeding needs to know the ids it creates");
+                }
+                plan.add(column, row -> row.id);
+                continue;
+            }
+            PropertyAccessors.Accessor accessor = properties.get(BeanRowMapper.normalize(column.name));
+            if (accessor != null && !Collection.class.isAssignableFrom(accessor.type())) {
+                plan.add(column, row -> accessor.read(row.data));
+            } else {
+                plan.requireOptional(column);
+            }
+        }
+        return plan;
+    }
+
+    // Linkage columns: the foreign key to Services, the other foreign key for the custom property value
+    private static TablePlan<String[]> linkagePlan(DatabaseMetaData metaData) throws SQLException {
+        Map<String, String> referencedTables = new HashMap<>();
+        try (ResultSet rs = metaData.getImportedKeys(metaData.getConnection().getCatalog(), null, LINKAGE_TABLE)) {
+            while (rs.next()) {
+                referencedTables.put(rs.getString("FKCOLUMN_NAME").toLowerCase(Locale.ROOT), rs.getString("PKTABLE_NAME"));
+            }
+        }
+        TablePlan<String[]> plan = new TablePlan<>(LINKAGE_TABLE);
+        for (TableColumn column : TableColumn.read(metaData, LINKAGE_TABLE)) {
+            String referenced = referencedTables.get(column.name.toLowerCase(Locale.ROOT));
+            if (SERVICES_TABLE.equalsIgnoreCase(referenced)) {
+                plan.add(column, link -> link[0]);
+            } else if (referenced != null) {
+                plan.add(column, link -> link[1]);
+            } else if (column.isGuid() && !column.nullable && !column.hasDefault) {
+                // A GUID key without a default gets a fresh id
+                plan.add(column, link -> UUID.randomUUID().toString());
+            } else {
+                plan.requireOptional(column);
+            }
+        }
+        return plan;
+    }
+
+    private static Iterator<SeedRow> serviceRows(ServiceDataGenerator generator, ServiceDataGenerator.Shard shard,
+                                                 List<String> seededIds) {
+        return new Iterator<>() {
+            private long index = nextValid(generator, shard.fromIndex(), shard.toIndex());
+
+            @Override
+            public boolean hasNext() {
+                return index < shard.toIndex();
+            }
+
+            @Override
+            public SeedRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String id = generator.idAt(index).toString();
+                seededIds.add(id);
+                SeedRow row = new SeedRow(id, generator.serviceData(index));
+                index = nextValid(generator, index + 1, shard.toIndex());
+                return row;
+            }
+        };
+    }
+
+    private static Iterator<String[]> linkRows(ServiceDataGenerator generator, ServiceDataGenerator.Shard shard) {
+        return new Iterator<>() {
+            private long index = shard.fromIndex() - 1;
+            private String serviceId;
+            private Iterator<String> values = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!values.hasNext()) {
+                    index = nextValid(generator, index + 1, shard.toIndex());
+                    if (index >= shard.toIndex()) {
+                        return false;
+                    }
+                    List<String> ids = generator.serviceData(index).getCustomPropertyValues();
+                    serviceId = generator.idAt(index).toString();
+                    values = ids == null ? Collections.emptyIterator() : ids.iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public String[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new String[]{serviceId, values.next()};
+            }
+        };
+    }
+
+    private static long nextValid(ServiceDataGenerator generator, long index, long end) {
+        while (index < end && generator.violationAt(index) != null) {
+            index++;
+        }
+        return index;
+    }
+
+    private static <R> long write(Connection connection, boolean bulkCopy, TablePlan<R> plan,
+                                  Supplier<Iterator<R>> rows) throws SQLException {
+        return bulkCopy ? bulkCopy(connection, plan, rows.get()) : batchInsert(plan, rows.get());
+    }
+
+    // Streams rows to SQL Server through the TDS bulk load protocol, inside the connection's transaction
+    private static <R> long bulkCopy(Connection connection, TablePlan<R> plan, Iterator<R> rows) throws SQLException {
+        BulkRows<R> source = new BulkRows<>(plan, rows);
+        try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(connection)) {
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            options.setBatchSize(BULK_COPY_BATCH_SIZE);
+            // Keep foreign keys trusted; unchecked bulk loads mark them as not trusted
+            options.setCheckConstraints(true);
+            options.setBulkCopyTimeout(0);
+            bulkCopy.setBulkCopyOptions(options);
+            bulkCopy.setDestinationTableName(SqlUtils.quote(plan.table));
+            for (int i = 0; i < plan.columns.size(); i++) {
+                bulkCopy.addColumnMapping(i + 1, plan.columns.get(i).name);
+            }
+            bulkCopy.writeToServer(source);
+        }
+        return source.count;
+    }
+
+    // Multi-row INSERTs, several per JDBC batch; full chunks share one prepared statement
+    private static <R> long batchInsert(TablePlan<R> plan, Iterator<R> rows) throws SQLException {
+        int columnCount = plan.columns.size();
+        int rowsPerInsert = Math.max(1, Math.min(SqlUtils.MAX_VALUES_ROWS, SqlUtils.MAX_PARAMETERS / columnCount));
+        String fullInsert = plan.insertSql(rowsPerInsert);
+        List<Object[]> pending = new ArrayList<>(INSERTS_PER_JDBC_BATCH);
+        List<Object> chunk = new ArrayList<>(rowsPerInsert * columnCount);
+        long count = 0;
+        while (rows.hasNext()) {
+            plan.appendValues(rows.next(), chunk);
+            count++;
+            if (chunk.size() == rowsPerInsert * columnCount) {
+                pending.add(chunk.toArray());
+                chunk.clear();
+                if (pending.size() == INSERTS_PER_JDBC_BATCH) {
+                    DBConnection.batchUpdate(fullInsert, pending);
+                    pending.clear();
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            DBConnection.batchUpdate(fullInsert, pending);
+        }
+        if (!chunk.isEmpty()) {
+            DBConnection.update(plan.insertSql(chunk.size() / columnCount), chunk.toArray());
+        }
+        return count;
+    }
+
+    /**
+     * Outcome of one seeding run.
+     */
+    public record SeedResult(long services, long links, long millis, String method) {
+
+        public long rowsPerSecond() {
+            return (services + links) * 1000 / Math.max(1, millis);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d services and %d custom property links in %d ms (%d rows/s, %s)",
+                    services, links, millis, rowsPerSecond(), method);
+        }
+    }
+
+    private record SeedRow(String id, ServiceData data) {
+    }
+
+    /**
+     * One destination column as reported by the JDBC metadata.
+     */
+    private record TableColumn(String name, int jdbcType, String typeName, int size, int scale, boolean nullable,
+                               boolean hasDefault, boolean autoIncrement, boolean generated) {
+
+        static List<TableColumn> read(DatabaseMetaData metaData, String table) throws SQLException {
+            List<TableColumn> columns = new ArrayList<>();
+            try (ResultSet rs = metaData.getColumns(metaData.getConnection().getCatalog(), null, table, null)) {
+                while (rs.next()) {
+                    columns.add(new TableColumn(rs.getString("COLUMN_NAME"), rs.getInt("DATA_TYPE"),
+                            rs.getString("TYPE_NAME"), rs.getInt("COLUMN_SIZE"), rs.getInt("DECIMAL_DIGITS"),
+                            rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable,
+                            rs.getString("COLUMN_DEF") != null,
+                            "YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT")),
+                            "YES".equalsIgnoreCase(rs.getString("IS_GENERATEDCOLUMN"))
+                                    || "timestamp".equalsIgnoreCase(rs.getString("TYPE_NAME"))));
+                }
+            }
+            if (columns.isEmpty()) {
+                throw new SQLException("Table " + table + " not found");
+            }
+            return columns;
+        }
+
+        boolean isGuid() {
+            return "uniqueidentifier".equalsIgnoreCase(typeName);
+        }
+
+        // Converts a bean value to what the column type expects
+        Object convert(Object value) {
+            if (value == null) {
+                return null;
+            }
+            return switch (jdbcType) {
+                case Types.DATE -> value instanceof String text ? java.sql.Date.valueOf(LocalDate.parse(text.substring(0, 10))) : value;
+                case Types.TIMESTAMP -> value instanceof String text
+                        ? Timestamp.valueOf(LocalDate.parse(text.substring(0, 10)).atStartOfDay()) : value;
+                case Types.DECIMAL, Types.NUMERIC -> value instanceof Number number && !(value instanceof BigDecimal)
+                        ? new BigDecimal(number.toString()) : value;
+                default -> value;
+            };
+        }
+    }
+
+    /**
+     * Columns to write and how to get each value from a row; unfillable required columns fail early.
+     */
+    private static final class TablePlan<R> {
+        final String table;
+        final List<TableColumn> columns = new ArrayList<>();
+        final List<Function<R, Object>> values = new ArrayList<>();
+
+        TablePlan(String table) {
+            this.table = table;
+        }
+
+        void add(TableColumn column, Function<R, Object> value) {
+            columns.add(column);
+            values.add(row -> column.convert(value.apply(row)));
+        }
+
+        void requireOptional(TableColumn column) throws SQLException {
+            if (!column.nullable && !column.hasDefault && !column.autoIncrement && !column.generated) {
+                throw new SQLException("Cannot seed " + table + ": required column " + column.name
+                        + " has no default and no matching ServiceData property");
+            }
+        }
+
+        void appendValues(R row, List<Object> target) {
+            for (Function<R, Object> value : values) {
+                target.add(value.apply(row));
+            }
+        }
+
+        String insertSql(int rowCount) {
+            StringJoiner names = new StringJoiner(",", "(", ")");
+            columns.forEach(column -> names.add(SqlUtils.quote(column.name)));
+            String tuple = "(" + String.join(",", Collections.nCopies(columns.size(), "?")) + ")";
+            return "INSERT INTO " + SqlUtils.quote(table) + " " + names + " VALUES "
+                    + String.join(",", Collections.nCopies(rowCount, tuple));
+        }
+    }
+
+    /**
+     * Feeds plan rows to {@link SQLServerBulkCopy} one at a time.
+     */
+    private static final class BulkRows<R> implements ISQLServerBulkData {
+        private final transient TablePlan<R> plan;
+        private final transient Iterator<R> rows;
+        private final Set<Integer> ordinals = new LinkedHashSet<>();
+        private Object[] current;
+        long count;
+
+        BulkRows(TablePlan<R> plan, Iterator<R> rows) {
+            this.plan = plan;
+            this.rows = rows;
+            for (int i = 1; i <= plan.columns.size(); i++) {
+                ordinals.add(i);
+            }
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return ordinals;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return plan.columns.get(column - 1).name;
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return plan.columns.get(column - 1).jdbcType;
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return plan.columns.get(column - 1).size;
+        }
+
+        @Override
+        public int getScale(int column) {
+            return plan.columns.get(column - 1).scale;
+        }
+
+        @Override
+        public Object[] getRowData() {
+            return current;
+        }
+
+        @Override
+        public boolean next() {
+            if (!rows.hasNext()) {
+                return false;
+            }
+            List<Object> values = new ArrayList<>(plan.columns.size());
+            plan.appendValues(rows.next(), values);
+            current = values.toArray();
+            count++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package Base;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQL text helpers shared by the classes that build statements against the test database: identifier quoting,
+ * {@code IN} list batching and primary key lookup.
+ */
+final class SqlUtils {
+
+    // SQL Server accepts at most 2100 parameters per statement; stay clear of it
+    static final int MAX_PARAMETERS = 2000;
+    static final int IN_LIST_BATCH_SIZE = 1000;
+    // SQL Server accepts at most 1000 rows per VALUES list
+    static final int MAX_VALUES_ROWS = 1000;
+
+    private SqlUtils() {
+    }
+
+    /**
+     * Quotes a table or column name as a SQL Server identifier.
+     */
+    static String quote(String identifier) {
+        return "[" + identifier.replace("]", "]]") + "]";
+    }
+
+    /**
+     * Splits values into consecutive {@code IN} lists of at most {@value #IN_LIST_BATCH_SIZE} values.
+     */
+    static List<List<?>> inListBatches(List<?> values) {
+        List<List<?>> batches = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += IN_LIST_BATCH_SIZE) {
+            batches.add(values.subList(from, Math.min(values.size(), from + IN_LIST_BATCH_SIZE)));
+        }
+        return batches;
+    }
+
+    /**
+     * Returns {@code count} comma-separated {@code ?} placeholders. Lists of one size share one SQL text, so
+     * their statement is prepared once per connection.
+     */
+    static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Returns the primary key column of {@code table} in the connection's catalog.
+     *
+     * @throws SQLException when the table has no primary key or a composite one
+     */
+    static String singlePrimaryKey(DatabaseMetaData metaData, String table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (ResultSet rs = metaData.getPrimaryKeys(metaData.getConnection().getCatalog(), null, table)) {
+            while (rs.next()) {
+                columns.add(rs.getString("COLUMN_NAME"));
+            }
+        }
+        if (columns.size() != 1) {
+            throw new SQLException("Expected a single-column primary key on " + table + " but found " + columns);
+        }
+        return columns.get(0);
+    }
+}
@@ -0,0 +1,202 @@
+package Base;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Boolean filter over test case tags, e.g. {@code smoke && !negative} or {@code (smoke || regression) && !slow}.
+ * <p>
+ * Supports {@code &&}, {@code ||}, {@code !} and parentheses with the usual precedence ({@code !} binds
+ * tightest, then {@code &&}, then {@code ||}). Tags are compared case-insensitively. A blank expression
+ * matches every test case.
+ */
+public final class TagExpression {
+
+    private static final TagExpression MATCH_ALL = new TagExpression("", tags -> true, null);
+
+    private final String source;
+    private final Node root;
+    private final String singleTag;
+
+    private TagExpression(String source, Node root, String singleTag) {
+        this.source = source;
+        this.root = root;
+        this.singleTag = singleTag;
+    }
+
+    public static TagExpression parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            return MATCH_ALL;
+        }
+        Parser parser = new Parser(expression);
+        Node root = parser.parseOr();
+        parser.expectEnd();
+        return new TagExpression(expression.trim(), root, root instanceof Tag tag ? tag.name : null);
+    }
+
+    /**
+     * Both expressions must match.
+     */
+    public TagExpression and(TagExpression other) {
+        if (this == MATCH_ALL) {
+            return other;
+        }
+        if (other == MATCH_ALL) {
+            return this;
+        }
+        return new TagExpression("(" + source + ") && (" + other.source + ")",
+                tags -> root.matches(tags) && other.root.matches(tags), null);
+    }
+
+    /**
+     * Matches against already lower-cased tags.
+     */
+    public boolean matches(Set<String> normalizedTags) {
+        return root.matches(normalizedTags);
+    }
+
+    public boolean matches(Collection<String> tags) {
+        return matches(normalize(tags));
+    }
+
+    public boolean matchesAll() {
+        return this == MATCH_ALL;
+    }
+
+    /**
+     * The tag when the expression is a single bare tag, so callers can use a tag index; otherwise null.
+     */
+    public String singleTag() {
+        return singleTag;
+    }
+
+    /**
+     * True when {@code tags} contain {@code tag}, compared the same way as in expressions.
+     */
+    public static boolean hasTag(Collection<String> tags, String tag) {
+        if (tags != null) {
+            for (String candidate : tags) {
+                if (candidate != null && candidate.trim().equalsIgnoreCase(tag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static Set<String> normalize(Collection<String> tags) {
+        Set<String> normalized = new HashSet<>();
+        if (tags != null) {
+            tags.forEach(tag -> normalized.add(tag.trim().toLowerCase(Locale.ROOT)));
+        }
+        return normalized;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    @FunctionalInterface
+    private interface Node {
+        boolean matches(Set<String> tags);
+    }
+
+    private record Tag(String name) implements Node {
+        @Override
+        public boolean matches(Set<String> tags) {
+            return tags.contains(name);
+        }
+    }
+
+    /**
+     * Recursive-descent parser: or := and ('||' and)*, and := unary ('&&' unary)*, unary := '!' unary | atom.
+     */
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Node parseOr() {
+            List<Node> terms = new ArrayList<>();
+            terms.add(parseAnd());
+            while (consume("||")) {
+                terms.add(parseAnd());
+            }
+            return terms.size() == 1 ? terms.get(0) : tags -> terms.stream().anyMatch(term -> term.matches(tags));
+        }
+
+        Node parseAnd() {
+            List<Node> factors = new ArrayList<>();
+            factors.add(parseUnary());
+            while (consume("&&")) {
+                factors.add(parseUnary());
+            }
+            return factors.size() == 1 ? factors.get(0) : tags -> factors.stream().allMatch(factor -> factor.matches(tags));
+        }
+
+        Node parseUnary() {
+            if (consume("!")) {
+                Node operand = parseUnary();
+                return tags -> !operand.matches(tags);
+            }
+            if (consume("(")) {
+                Node inner = parseOr();
+                if (!consume(")")) {
+                    throw error("Expected ')'");
+                }
+                return inner;
+            }
+            return parseTag();
+        }
+
+        Node parseTag() {
+            skipWhitespace();
+            int start = pos;
+            while (pos < text.length() && isTagChar(text.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("Expected a tag");
+            }
+            return new Tag(text.substring(start, pos).toLowerCase(Locale.ROOT));
+        }
+
+        void expectEnd() {
+            skipWhitespace();
+            if (pos < text.length()) {
+                throw error("Unexpected input");
+            }
+        }
+
+        private boolean consume(String token) {
+            skipWhitespace();
+            if (text.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static boolean isTagChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '-' || c == '_' || c == '.' || c == ':';
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos + " in tag expression '" + text + "'");
+        }
+    }
+}
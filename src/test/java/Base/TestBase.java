@@ -1,7 +1,8 @@
 package Base;
 
+import Data.ServiceDataGenerator;
 import Utils.*;
-import Validators.ValidationError;
+import Validators.ValidationErrorIndex;
 import Validators.ValidationResponse;
 import io.qameta.allure.restassured.AllureRestAssured;
 import io.restassured.builder.RequestSpecBuilder;
@@ -15,25 +16,29 @@ import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import org.testng.Assert;
+import org.testng.ITestResult;
 import org.testng.annotations.*;
 
 import java.io.*;
 import java.lang.reflect.Method;
-import java.net.Socket;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import static io.restassured.RestAssured.*;
 import static io.restassured.config.SSLConfig.sslConfig;
-import static org.hamcrest.Matchers.equalTo;
 
 /**
  * Base test class providing common setup/teardown functionality for all API tests.
  * Includes REST Assured config, Allure reporting, DB connection, logging, and report emailing.
+ * <p>
+ * Per-test state (request specification, log stream) is bound to the executing thread so the
+ * suite can run with TestNG {@code parallel="methods"}; see {@link ParallelExecutionListener}.
  */
 public abstract class TestBase {
 
@@ -41,69 +46,108 @@ public abstract class TestBase {
     private static final int HTTP_TIMEOUT_MS = 30000;
     private static final DateTimeFormatter LOG_TIMESTAMP_FORMATTER =
             DateTimeFormatter.ofPattern("dd-MM-yyyy-HH-mm-ss");
+    // "buffered" keeps exchanges in memory and writes them only for failed tests; "full" logs every
+    // exchange synchronously to the per-test file and the console
+    private static final boolean FULL_HTTP_LOGGING =
+            "full".equalsIgnoreCase(ConfigReaderWriter.getPropKey("http.log.mode", "buffered"));
+    private static final boolean VERBOSE_HTTP_LOGGING = ConfigReaderWriter.getBooleanPropKey("http.log.verbose", false);
 
     // REST Assured & Logging
-    protected static RestAssuredConfig restAssuredConfig;
-    protected RequestSpecification requestSpecification;
-    private final Map<String, PrintStream> testLogStreams = new HashMap<>();
+    protected static volatile RestAssuredConfig restAssuredConfig;
+    private static final ThreadLocal<RequestSpecification> requestSpecification = new ThreadLocal<>();
+    private static final ThreadLocal<PrintStream> testLogStream = new ThreadLocal<>();
+    private final Set<PrintStream> openLogStreams = ConcurrentHashMap.newKeySet();
 
     /* ------------------- Test Lifecycle Methods ------------------- */
 
-    @BeforeClass
-    public void globalSetup() throws IOException {
+    @BeforeSuite
+    public void globalSetup() throws IOException, SQLException {
         validateTestInfrastructure();
         configureRestAssured();
         initializeReportDirectories();
+        seedServices();
     }
 
     @BeforeMethod
     public void setupPerTest(Method testMethod) {
         String testName = testMethod.getName();
         initializeTestLogging(testName);
-        configureRequestSpecification(testName);
+        configureRequestSpecification();
     }
 
+    @AfterMethod(alwaysRun = true)
+    public void tearDownPerTest(ITestResult result) {
+        closeLogStream(testLogStream.get());
+        testLogStream.remove();
+        flushExchangeLog(result);
+        requestSpecification.remove();
+        // Hand this worker thread's database connection back to the pool for the next test
+        DBConnection.release();
+    }
+
+    /**
+     * Closes the resources of this class only; classes running in parallel keep theirs.
+     */
     @AfterClass(alwaysRun = true)
-    public void tearDownAll() throws SQLException {
+    public void tearDownAll() {
+        closeLogStreams();
+    }
+
+    /**
+     * Runs once after every class is done: generates, zips and emails the report, deletes only the entities the
+     * suite created (see {@link CreatedEntityTracker}) and closes the shared pools.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void tearDownSuite() throws SQLException {
         try {
             generateTestReports();
+            CreatedEntityTracker.deleteTrackedEntities();
         } finally {
             cleanupTestResources();
         }
-        DBConnection.executeUpdate("DELETE ServiceCustomPropertiesLinkage");
-        DBConnection.executeUpdate("DELETE Services");
+    }
+
+    /**
+     * Seeds {@code -Dseed.services=N} generated services into the database before any test runs, e.g. for list
+     * and paging tests. The seed is printed so a run can be reproduced with {@code -Dseed.services.seed}.
+     */
+    private void seedServices() throws SQLException {
+        int count = ConfigReaderWriter.getIntPropKey("seed.services", 0);
+        if (count <= 0) {
+            return;
+        }
+        long seed = Long.parseLong(ConfigReaderWriter.getPropKey("seed.services.seed",
+                String.valueOf(System.currentTimeMillis())));
+        System.out.println("Seeding " + count + " services with seed " + seed);
+        ServiceSeeder.seedServices(new ServiceDataGenerator(seed, 0), ServiceDataGenerator.Shard.of(count, 0, 1));
     }
 
     /* ------------------- Configuration ------------------- */
 
+    /**
+     * Checks DB, backend and SMTP in parallel; the verdict is computed once per JVM and reused by
+     * every suite. An unreachable SMTP server only disables the report email.
+     */
     private void validateTestInfrastructure() {
-        validateDatabaseConnection();
-        validateBackendService();
-    }
+        InfrastructurePreflight.Verdict verdict = InfrastructurePreflight.verify();
+        verdict.results().forEach(result -> System.out.println("Preflight: " + result.describe()));
 
-    private void validateDatabaseConnection() {
-        try {
-            DBConnection.getConnection();
-            System.out.println("Database connection established successfully");
-        } catch (Exception e) {
-            throw new TestInfrastructureException("Database connection failed", e);
-        }
-    }
-
-    private void validateBackendService() {
-        try (Socket socket = new Socket("localhost", 5251)) {
-            System.out.println("Backend service is running on port 5251");
-        } catch (IOException e) {
-            throw new TestInfrastructureException("Backend service not available", e);
+        InfrastructurePreflight.CheckResult failure = verdict.firstRequiredFailure();
+        if (failure != null) {
+            throw new TestInfrastructureException(failure.describe(), failure.error());
         }
     }
 
     private void configureRestAssured() {
         baseURI = ConfigReaderWriter.getPropKey("base.uri");
 
+        // Shared keep-alive pool and one SSL socket factory, so requests reuse TCP connections and TLS sessions
         restAssuredConfig = config()
-                .sslConfig(sslConfig().relaxedHTTPSValidation())
+                .sslConfig(sslConfig()
+                        .sslSocketFactory(HttpConnectionPool.sslSocketFactory())
+                        .allowAllHostnames())
                 .httpClient(HttpClientConfig.httpClientConfig()
+                        .httpClientFactory(HttpConnectionPool.httpClientFactory())
                         .setParam("http.connection.timeout", HTTP_TIMEOUT_MS)
                         .setParam("http.socket.timeout", HTTP_TIMEOUT_MS));
 
@@ -124,32 +168,75 @@ public abstract class TestBase {
     /* ------------------- Test Setup ------------------- */
 
     private void initializeTestLogging(String testName) {
-        String logFilePath = String.format("%s/%s-%s.log",
-                FileUtils.LOG_DIR,
-                testName,
-                LocalDateTime.now().format(LOG_TIMESTAMP_FORMATTER));
+        if (!FULL_HTTP_LOGGING) {
+            ExchangeLog.start(testName);
+            return;
+        }
 
+        String logFilePath = createLogFilePath(testName);
         try {
             PrintStream logStream = new PrintStream(new FileOutputStream(logFilePath));
-            testLogStreams.put(testName, logStream);
+            testLogStream.set(logStream);
+            openLogStreams.add(logStream);
         } catch (FileNotFoundException e) {
             throw new TestSetupException("Failed to create test log file: " + logFilePath, e);
         }
     }
 
-    private void configureRequestSpecification(String testName) {
-        PrintStream testLogStream = testLogStreams.get(testName);
+    private String createLogFilePath(String testName) {
+        // Thread id keeps concurrent invocations of the same method in separate files
+        return String.format("%s/%s-%s-%d.log",
+                FileUtils.LOG_DIR,
+                testName,
+                LocalDateTime.now().format(LOG_TIMESTAMP_FORMATTER),
+                Thread.currentThread().threadId());
+    }
+
+    private void configureRequestSpecification() {
+        requestSpecification.set(new RequestSpecBuilder()
+                .setBaseUri(baseURI)
+                .setContentType(ContentType.JSON)
+                .addHeader("Accept", "*/*")
+                .addFilter(CreatedEntityTracker.filter())
+                .addFilters(createLoggingFilters(testLogStream.get()))
+                // Closest to the wire, so the latency excludes logging and Allure formatting but includes the body
+                .addFilter(EndpointMetrics.timingFilter())
+                .addFilter(HttpConnectionPool.releaseConnectionFilter())
+                .setConfig(restAssuredConfig)
+                .build());
+    }
 
-        requestSpecification = new RequestSpecBuilder()
+    /**
+     * Request specification bound to the thread executing the current test method.
+     */
+    protected RequestSpecification getRequestSpecification() {
+        RequestSpecification spec = requestSpecification.get();
+        if (spec == null) {
+            throw new TestSetupException("No request specification bound to thread "
+                    + Thread.currentThread().getName() + "; call it from a @Test method", null);
+        }
+        return spec;
+    }
+
+    /**
+     * Lean specification for load runs: pooled connections only, no per-request logging or Allure
+     * attachments. Safe to share between virtual-user threads.
+     */
+    protected RequestSpecification createLoadRequestSpecification() {
+        return new RequestSpecBuilder()
                 .setBaseUri(baseURI)
                 .setContentType(ContentType.JSON)
                 .addHeader("Accept", "*/*")
-                .addFilters(createLoggingFilters(testLogStream))
+                .addFilter(CreatedEntityTracker.filter())
+                .addFilter(HttpConnectionPool.releaseConnectionFilter())
                 .setConfig(restAssuredConfig)
                 .build();
     }
 
     private List<Filter> createLoggingFilters(PrintStream logStream) {
+        if (!FULL_HTTP_LOGGING) {
+            return Arrays.asList(new AllureRestAssured(), ExchangeLog.filter());
+        }
         return Arrays.asList(
                 new AllureRestAssured(),
                 new RequestLoggingFilter(LogDetail.ALL, logStream),
@@ -163,9 +250,14 @@ public abstract class TestBase {
 
     private void generateTestReports() {
         try {
+            ExchangeLog.awaitPendingWrites(10, TimeUnit.SECONDS);
             ReportUtils.generateAllureReport();
             String htmlSummary = ReportUtils.getEnhancedSummaryHtml();
-            EmailUtils.sendHtmlReportSummary(htmlSummary);
+            if (InfrastructurePreflight.verify().get("SMTP").passed()) {
+                EmailUtils.sendHtmlReportSummary(htmlSummary);
+            } else {
+                System.err.println("SMTP server not reachable, report email skipped");
+            }
             FileUtils.zipFolder(FileUtils.ALLURE_REPORT_DIR, FileUtils.ALLURE_REPORT_ZIP);
         } catch (Exception e) {
             System.err.println("Error during report generation: " + e.getMessage());
@@ -176,21 +268,34 @@ public abstract class TestBase {
     /* ------------------- Cleanup ------------------- */
 
     private void cleanupTestResources() {
-        closeLogStreams();
+        System.out.println("HTTP connections: " + HttpConnectionPool.describeUsage());
+        System.out.println("Database connections: " + DBConnection.describeUsage());
         closeDatabaseConnection();
     }
 
+    private void flushExchangeLog(ITestResult result) {
+        ExchangeLog log = ExchangeLog.end();
+        if (log == null || log.isEmpty()) {
+            return;
+        }
+        if (VERBOSE_HTTP_LOGGING || result.getStatus() == ITestResult.FAILURE) {
+            log.flushAsync(Paths.get(createLogFilePath(result.getMethod().getMethodName())));
+        }
+    }
+
+    // Streams opened by this class's tests; each test class has its own instance, so other classes are untouched
     private void closeLogStreams() {
-        testLogStreams.values().forEach(stream -> {
-            try {
-                if (stream != null) {
-                    stream.close();
-                }
-            } catch (Exception e) {
-                System.err.println("Error closing log stream: " + e.getMessage());
+        openLogStreams.forEach(this::closeLogStream);
+    }
+
+    private void closeLogStream(PrintStream stream) {
+        try {
+            if (stream != null && openLogStreams.remove(stream)) {
+                stream.close();
             }
-        });
-        testLogStreams.clear();
+        } catch (Exception e) {
+            System.err.println("Error closing log stream: " + e.getMessage());
+        }
     }
 
     private void closeDatabaseConnection() {
@@ -204,10 +309,9 @@ public abstract class TestBase {
     /* ------------------- Assertion Utilities ------------------- */
 
     protected <T> void assertPositiveResponse(Response response, Class<T> responseType) {
-        response.then()
-                .statusCode(200)
-                .body("data.isValid", equalTo(true));
+        Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
 
+        // Decoded once; the negative/field assertions on the same response reuse it
         ValidationResponse<T> vr = ValidationUtils.extractValidationResponse(response, responseType);
         Assert.assertTrue(vr.isValid(), "Response should be valid");
         Assert.assertNotNull(vr.getRow(), "Response row should not be null");
@@ -218,13 +322,9 @@ public abstract class TestBase {
 
         // More flexible assertion
         if (expectedMessagePart != null) {
-            List<ValidationError> errors = ValidationUtils.extractValidationErrors(response);
-            boolean found = errors.stream().anyMatch(e ->
-                    (expectedField == null || e.getColumn().equalsIgnoreCase(expectedField)) &&
-                            e.getMessage().toLowerCase().contains(expectedMessagePart.toLowerCase()));
-
-            Assert.assertTrue(found, "Expected error containing '" + expectedMessagePart +
-                    "' not found in errors: " + errors);
+            ValidationErrorIndex errors = ResponseDecoder.errorIndex(response);
+            Assert.assertTrue(errors.containsMessage(expectedField, expectedMessagePart),
+                    "Expected error containing '" + expectedMessagePart + "' not found in errors: " + errors.getErrors());
         }
     }
 
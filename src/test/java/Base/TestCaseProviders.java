@@ -0,0 +1,70 @@
+package Base;
+
+import Data.Common.BaseEntityData;
+import Data.Common.TestData;
+import Utils.ConfigReaderWriter;
+import org.testng.annotations.DataProvider;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Generic data providers for methods annotated with {@link TestCases}.
+ * <p>
+ * Cases come from the indexed {@link TestCaseRegistry} of the declared file and are filtered by the
+ * annotation's tag expression and the run-wide {@code test.tags} property (both must match), e.g.
+ * {@code mvn test -Dtest.tags="smoke && !negative"}. {@link #PARALLEL} fans the selected cases out to
+ * TestNG's data provider workers ({@code -Dparallel.dataprovider.thread.count}).
+ */
+public final class TestCaseProviders {
+
+    public static final String SERIAL = "testCases";
+    public static final String PARALLEL = "testCasesParallel";
+    private static final String TAG_FILTER_KEY = "test.tags";
+
+    private TestCaseProviders() {
+    }
+
+    @DataProvider(name = SERIAL)
+    public static Iterator<Object[]> testCases(Method method) throws IOException {
+        return select(method);
+    }
+
+    @DataProvider(name = PARALLEL, parallel = true)
+    public static Iterator<Object[]> testCasesParallel(Method method) throws IOException {
+        return select(method);
+    }
+
+    private static Iterator<Object[]> select(Method method) throws IOException {
+        TestCases source = method.getAnnotation(TestCases.class);
+        if (source == null) {
+            throw new IllegalStateException(method.getName() + " uses a TestCaseProviders data provider without @TestCases");
+        }
+        TagExpression filter = TagExpression.parse(source.tags())
+                .and(TagExpression.parse(ConfigReaderWriter.getPropKey(TAG_FILTER_KEY, "")));
+
+        List<? extends TestData<?>> selected = TestDataLoader
+                .registry(source.basePath(), source.file(), dataType(method))
+                .select(filter);
+        System.out.printf("%s: %d test case(s) selected from %s by tags '%s'%n",
+                method.getName(), selected.size(), source.file(), filter);
+        return selected.stream().map(testCase -> new Object[]{testCase}).iterator();
+    }
+
+    // Entity type from the method's TestData<T> parameter
+    @SuppressWarnings("unchecked")
+    private static Class<? extends BaseEntityData> dataType(Method method) {
+        Type[] parameters = method.getGenericParameterTypes();
+        if (parameters.length == 1 && parameters[0] instanceof ParameterizedType type
+                && type.getRawType() == TestData.class
+                && type.getActualTypeArguments()[0] instanceof Class<?> entity
+                && BaseEntityData.class.isAssignableFrom(entity)) {
+            return (Class<? extends BaseEntityData>) entity;
+        }
+        throw new IllegalStateException(method.getName() + " must take a single TestData<T> parameter");
+    }
+}
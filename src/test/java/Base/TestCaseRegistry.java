@@ -0,0 +1,114 @@
+package Base;
+
+import Data.Common.BaseEntityData;
+import Data.Common.TestData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable index over the test cases of one data file.
+ * <p>
+ * Test case names are looked up case-insensitively; when two cases share a name the first one in the file
+ * wins, as before. Tags are indexed case-insensitively and keep file order; {@link #select(TagExpression)}
+ * filters by a boolean tag expression.
+ * <p>
+ * The indexed cases are never handed out: every lookup returns fresh copies, so a test that adjusts its
+ * request data (e.g. injects an id) cannot leak the change into other tests or later runs of the same case.
+ */
+public final class TestCaseRegistry<T extends BaseEntityData> {
+
+    private final List<TestData<T>> testCases;
+    private final Map<String, TestData<T>> byName;
+    private final Map<String, List<TestData<T>>> byTag;
+    private final List<Set<String>> tagSets;
+    private final UnaryOperator<TestData<T>> copier;
+
+    TestCaseRegistry(List<TestData<T>> testCases, UnaryOperator<TestData<T>> copier) {
+        this.copier = copier;
+        this.testCases = Collections.unmodifiableList(new ArrayList<>(testCases));
+        Map<String, TestData<T>> names = new HashMap<>();
+        Map<String, List<TestData<T>>> tags = new HashMap<>();
+        List<Set<String>> caseTags = new ArrayList<>(this.testCases.size());
+        for (TestData<T> testCase : this.testCases) {
+            if (testCase.getTestCaseName() != null) {
+                names.putIfAbsent(key(testCase.getTestCaseName()), testCase);
+            }
+            Set<String> normalizedTags = Set.copyOf(TagExpression.normalize(testCase.getTags()));
+            caseTags.add(normalizedTags);
+            for (String tag : normalizedTags) {
+                tags.computeIfAbsent(tag, k -> new ArrayList<>()).add(testCase);
+            }
+        }
+        this.tagSets = List.copyOf(caseTags);
+        tags.replaceAll((tag, cases) -> Collections.unmodifiableList(cases));
+        this.byName = Map.copyOf(names);
+        this.byTag = Map.copyOf(tags);
+    }
+
+    /**
+     * Copies of all test cases in file order.
+     */
+    public List<TestData<T>> all() {
+        return copies(testCases);
+    }
+
+    public Optional<TestData<T>> findByName(String testCaseName) {
+        return Optional.ofNullable(byName.get(key(testCaseName))).map(copier);
+    }
+
+    public TestData<T> getByName(String testCaseName) {
+        return findByName(testCaseName)
+                .orElseThrow(() -> new RuntimeException("Test case not found: " + testCaseName));
+    }
+
+    /**
+     * Copies of the test cases carrying the given tag, in file order.
+     */
+    public List<TestData<T>> withTag(String tag) {
+        return copies(byTag.getOrDefault(key(tag), List.of()));
+    }
+
+    /**
+     * Copies of the test cases whose tags satisfy the expression, in file order. A single-tag expression is served from
+     * the tag index.
+     */
+    public List<TestData<T>> select(TagExpression expression) {
+        if (expression.matchesAll()) {
+            return all();
+        }
+        if (expression.singleTag() != null) {
+            return withTag(expression.singleTag());
+        }
+        List<TestData<T>> selected = new ArrayList<>();
+        for (int i = 0; i < testCases.size(); i++) {
+            if (expression.matches(tagSets.get(i))) {
+                selected.add(copier.apply(testCases.get(i)));
+            }
+        }
+        return Collections.unmodifiableList(selected);
+    }
+
+    public int size() {
+        return testCases.size();
+    }
+
+    private List<TestData<T>> copies(List<TestData<T>> cases) {
+        List<TestData<T>> copies = new ArrayList<>(cases.size());
+        for (TestData<T> testCase : cases) {
+            copies.add(copier.apply(testCase));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    private static String key(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
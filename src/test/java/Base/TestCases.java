@@ -0,0 +1,30 @@
+package Base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares where a data-driven test takes its cases from; read by {@link TestCaseProviders}.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * @Test(dataProvider = TestCaseProviders.PARALLEL, dataProviderClass = TestCaseProviders.class)
+ * @TestCases(file = "Service_TD/EnhancedServiceTestData.json", tags = "smoke")
+ * public void create(TestData<ServiceData> testCase) { ... }
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface TestCases {
+
+    /** Directory the file is resolved against. */
+    String basePath() default "src/test/resources/TestData/";
+
+    /** JSON array of test cases, relative to {@link #basePath()}. */
+    String file();
+
+    /** Tag expression every case must satisfy, combined with {@code -Dtest.tags}; blank selects all. */
+    String tags() default "";
+}
@@ -4,38 +4,90 @@ import Data.Common.BaseEntityData;
 import Data.Common.TestData;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Loads test case files once per JVM and serves them from an indexed {@link TestCaseRegistry}.
+ * Concurrent callers asking for the same file wait for a single parse. Every call returns its own copies of
+ * the cases, which callers may modify freely.
+ */
 public class TestDataLoader {
     private static final ObjectMapper mapper = new ObjectMapper()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);  // Add this line
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
-    private static final Map<String, List<?>> cache = new ConcurrentHashMap<>();
+    private static final Map<Path, TestCaseRegistry<?>> registries = new ConcurrentHashMap<>();
 
-    // Rest of the class remains the same
     public static <T extends BaseEntityData> TestData<T> loadTestCaseByName(String basePath, String fileName,
                                                                             String testCaseName, TypeReference<List<TestData<T>>> typeRef) throws Exception {
-        String cacheKey = basePath + fileName;
+        return registry(basePath, fileName, typeRef).getByName(testCaseName);
+    }
 
-        if (!cache.containsKey(cacheKey)) {
-            InputStream is = Files.newInputStream(Paths.get(basePath + fileName));
-            List<TestData<T>> all = mapper.readValue(is, typeRef);
-            cache.put(cacheKey, all);
-        }
+    public static <T extends BaseEntityData> List<TestData<T>> loadAllTestCases(String basePath, String fileName,
+                                                                              TypeReference<List<TestData<T>>> typeRef) throws Exception {
+        return registry(basePath, fileName, typeRef).all();
+    }
+
+    public static <T extends BaseEntityData> List<TestData<T>> loadTestCasesByTag(String basePath, String fileName, String tag,
+                                                                                TypeReference<List<TestData<T>>> typeRef) throws Exception {
+        return registry(basePath, fileName, typeRef).withTag(tag);
+    }
+
+    /**
+     * Opens a data file for streaming instead of loading it whole; use for generated datasets too large to
+     * keep in memory. The caller owns the stream (it closes itself once exhausted).
+     */
+    public static <T extends BaseEntityData> TestDataStream<T> streamTestCases(String basePath, String fileName,
+                                                                             Class<T> dataType) throws IOException {
+        return TestDataStream.open(Paths.get(basePath, fileName), dataType);
+    }
 
-        @SuppressWarnings("unchecked")
-        List<TestData<T>> cachedData = (List<TestData<T>>) cache.get(cacheKey);
+    /**
+     * Returns the registry of a data file, parsing it on first use.
+     */
+    public static <T extends BaseEntityData> TestCaseRegistry<T> registry(String basePath, String fileName,
+                                                                          TypeReference<List<TestData<T>>> typeRef) throws IOException {
+        return registry(basePath, fileName, mapper.getTypeFactory().constructType(typeRef));
+    }
+
+    /**
+     * Returns the registry of a data file whose entries carry {@code dataType}, parsing it on first use.
+     */
+    public static <T extends BaseEntityData> TestCaseRegistry<T> registry(String basePath, String fileName,
+                                                                          Class<T> dataType) throws IOException {
+        TypeFactory types = mapper.getTypeFactory();
+        return registry(basePath, fileName,
+                types.constructCollectionType(List.class, types.constructParametricType(TestData.class, dataType)));
+    }
 
-        return cachedData.stream()
-                .filter(tc -> tc.getTestCaseName().equalsIgnoreCase(testCaseName))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Test case not found: " + testCaseName));
+    @SuppressWarnings("unchecked")
+    private static <T extends BaseEntityData> TestCaseRegistry<T> registry(String basePath, String fileName,
+                                                                           JavaType listType) throws IOException {
+        Path file = Paths.get(basePath, fileName).toAbsolutePath().normalize();
+        try {
+            return (TestCaseRegistry<T>) registries.computeIfAbsent(file, path -> new TestCaseRegistry<T>(
+                    read(path, listType), testCase -> mapper.convertValue(testCase, listType.getContentType())));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T extends BaseEntityData> List<TestData<T>> read(Path file, JavaType listType) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return mapper.readValue(in, listType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load test data from " + file, e);
+        }
     }
-}
\ No newline at end of file
+}
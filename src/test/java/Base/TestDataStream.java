@@ -0,0 +1,159 @@
+package Base;
+
+import Data.Common.BaseEntityData;
+import Data.Common.TestData;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Reads a JSON array of test cases one element at a time, so memory stays bounded whatever the file size.
+ * <p>
+ * Use {@link #asDataProvider()} for a lazy TestNG {@code Iterator<Object[]>} data provider (one test case per
+ * invocation), or {@link #forEachParallel} to process a file with a bounded number of cases in flight.
+ * The underlying file is closed when the array is exhausted or on {@link #close()}.
+ */
+public final class TestDataStream<T extends BaseEntityData> implements Iterator<TestData<T>>, AutoCloseable {
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path file;
+    private final JsonParser parser;
+    private final ObjectReader reader;
+    private boolean hasNext;
+    private long position;
+
+    private TestDataStream(Path file, Class<T> dataType) throws IOException {
+        this.file = file;
+        JavaType type = mapper.getTypeFactory().constructParametricType(TestData.class, dataType);
+        this.reader = mapper.readerFor(type);
+        this.parser = mapper.getFactory().createParser(file.toFile());
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IOException("Expected a JSON array of test cases in " + file);
+        }
+        advance();
+    }
+
+    public static <T extends BaseEntityData> TestDataStream<T> open(Path file, Class<T> dataType) throws IOException {
+        return new TestDataStream<>(file, dataType);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public TestData<T> next() {
+        if (!hasNext) {
+            throw new NoSuchElementException("No more test cases in " + file);
+        }
+        try {
+            TestData<T> testCase = reader.readValue(parser);
+            position++;
+            advance();
+            return testCase;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Failed to read test case #" + (position + 1) + " from " + file, e);
+        }
+    }
+
+    /**
+     * Wraps the stream as a lazy TestNG data provider; each invocation receives one {@link TestData}.
+     */
+    public Iterator<Object[]> asDataProvider() {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return TestDataStream.this.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{TestDataStream.this.next()};
+            }
+        };
+    }
+
+    /**
+     * Streams the file through {@code action} on virtual threads, never holding more than {@code parallelism}
+     * test cases in memory. The first failure stops reading and is rethrown once in-flight cases finish.
+     */
+    public static <T extends BaseEntityData> long forEachParallel(Path file, Class<T> dataType, int parallelism,
+                                                                  Consumer<TestData<T>> action) throws IOException {
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long submitted = 0;
+        try (TestDataStream<T> stream = open(file, dataType);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (stream.hasNext() && failure.get() == null) {
+                inFlight.acquireUninterruptibly();
+                TestData<T> testCase = stream.next();
+                submitted++;
+                executor.execute(() -> {
+                    try {
+                        action.accept(testCase);
+                    } catch (RuntimeException | Error e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        Throwable error = failure.get();
+        if (error instanceof Error assertionOrError) {
+            throw assertionOrError;
+        }
+        if (error != null) {
+            throw (RuntimeException) error;
+        }
+        return submitted;
+    }
+
+    /**
+     * Number of test cases read so far.
+     */
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void close() {
+        hasNext = false;
+        try {
+            parser.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close test data stream " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void advance() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            hasNext = true;
+        } else if (token == JsonToken.END_ARRAY || token == null) {
+            close();
+        } else {
+            close();
+            throw new IOException("Unexpected " + token + " in test case array of " + file);
+        }
+    }
+}
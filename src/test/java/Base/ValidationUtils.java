@@ -2,18 +2,15 @@ package Base;
 
 import Validators.ValidationError;
 import Validators.ValidationErrorConsts;
+import Validators.ValidationErrorIndex;
 import Validators.ValidationResponse;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.restassured.response.Response;
 import org.testng.Assert;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.math.BigDecimal;
+import java.util.*;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 public class ValidationUtils {
 
@@ -120,14 +117,19 @@ public class ValidationUtils {
             ))
     );
 
-    public static <T> ValidationResponse<T> extractValidationResponse(Response response, Class<T> responseType) {
-        // Extract the nested "data" object first
-        ObjectMapper mapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    // Properties every service request must carry
+    private static final List<String> MANDATORY_FIELDS = List.of("code", "nameEn", "titleEn", "titleAr");
+    private static final ResponseDecoder.ResponsePath ROW = ResponseDecoder.ResponsePath.compile("data.row");
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern DATE_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
 
-        Map<String, Object> dataMap = response.jsonPath().getMap("data");
-        return mapper.convertValue(dataMap, new TypeReference<ValidationResponse<T>>() {
-        });
+    // Expected messages compiled once into per-column matchers
+    private static final ErrorMessageMatcher ERROR_MESSAGE_MATCHER = ErrorMessageMatcher.compile(EXPECTED_ERROR_MESSAGES);
+
+    public static <T> ValidationResponse<T> extractValidationResponse(Response response, Class<T> responseType) {
+        // Parsed once per response and shared with every other assertion on it
+        return ResponseDecoder.validationResponse(response, responseType);
     }
 
     public static List<ValidationError> extractValidationErrors(Response response) {
@@ -162,71 +164,138 @@ public class ValidationUtils {
     }
 
     public static void assertValidationContains(Response response, String field, String... possibleMessages) {
-        List<ValidationError> errors = extractValidationErrors(response);
+        ValidationErrorIndex errors = ResponseDecoder.errorIndex(response);
 
-        boolean found = Arrays.stream(possibleMessages).anyMatch(msg ->
-                errors.stream().anyMatch(err ->
-                        err.getColumn().equalsIgnoreCase(field) &&
-                                (normalizeApostrophes(err.getMessage()).toLowerCase()
-                                        .contains(normalizeApostrophes(msg).toLowerCase()) ||
-                                        normalizeApostrophes(err.getMessageAr()).toLowerCase()
-                                                .contains(normalizeApostrophes(msg).toLowerCase())
-                                )
-                ));
-
-        if (!found) {
-            String allErrors = errors.stream()
-                    .map(e -> "[" + e.getColumn() + "]: " + e.getMessage() + " (" + e.getMessageAr() + ")")
-                    .collect(Collectors.joining("\n"));
+        if (!errors.containsAnyMessage(field, possibleMessages)) {
             Assert.fail("Expected message containing one of [" + String.join(", ", possibleMessages) +
-                    "] for field [" + field + "] not found.\nAvailable errors:\n" + allErrors);
+                    "] for field [" + field + "] not found.\nAvailable errors:\n" + errors.describe());
         }
     }
 
-    private static String normalizeApostrophes(String input) {
-        return input.replace('’', '\''); // Replace curly apostrophe with straight one
-    }
-
     public static void assertValidationMessages(Response response) {
         List<ValidationError> errors = extractValidationErrors(response);
 
         errors.forEach(error -> {
             String column = error.getColumn();
-            String actualMessage = error.getMessage().trim().toLowerCase();
 
-            if (!EXPECTED_ERROR_MESSAGES.containsKey(column)) {
+            if (!ERROR_MESSAGE_MATCHER.hasColumn(column)) {
                 Assert.fail("No expected messages configured for column: " + column);
                 return;
             }
 
-            List<String> allowedMessages = EXPECTED_ERROR_MESSAGES.get(column);
-            boolean matched = allowedMessages.stream().anyMatch(expected -> {
-                if (expected.startsWith("regex:")) {
-                    String pattern = expected.replace("regex:", "");
-                    return Pattern.compile(pattern, Pattern.CASE_INSENSITIVE)
-                            .matcher(actualMessage).find();
-                }
-                return actualMessage.equals(expected.trim().toLowerCase()) ||
-                        actualMessage.contains(expected.trim().toLowerCase());
-            });
-
-            Assert.assertTrue(matched,
+            Assert.assertTrue(ERROR_MESSAGE_MATCHER.matches(column, error.getMessage()),
                     String.format("Unexpected validation message for column %s. Received: %s",
-                            column, actualMessage));
+                            column, ErrorMessageMatcher.normalize(error.getMessage())));
         });
     }
 
+    /**
+     * Compares every non-null scalar property of the request with the same property of {@code data.row}
+     * and reports all mismatches in one failure. Collections are left to {@link #assertCustomPropertiesMatch}.
+     */
     public static void assertFieldValuesMatchRequest(Response response, Object request) {
-        // Implementation would use reflection to compare request fields with response fields
-        // This would be similar to your Postman test checking field matches
+        JsonNode row = ROW.node(response);
+        Assert.assertTrue(row.isObject(), "Response has no data.row object to compare with the request");
+
+        List<String> mismatches = new ArrayList<>();
+        for (PropertyAccessors.Accessor accessor : PropertyAccessors.of(request.getClass()).all()) {
+            Object expected = accessor.read(request);
+            if (expected == null || expected instanceof Collection<?> || expected instanceof Map<?, ?>) {
+                continue;
+            }
+            JsonNode actual = row.get(accessor.name());
+            if (actual == null || actual.isNull()) {
+                mismatches.add(accessor.name() + ": expected <" + expected + "> but was missing");
+            } else if (!valueMatches(expected, actual)) {
+                mismatches.add(accessor.name() + ": expected <" + expected + "> but was <" + actual.asText() + ">");
+            }
+        }
+
+        if (!mismatches.isEmpty()) {
+            Assert.fail("Response row does not match the request:\n" + String.join("\n", mismatches));
+        }
     }
 
+    /**
+     * Checks that {@code data.row.customPropertyValues} holds exactly the expected ids, in any order.
+     * Elements may be plain ids or objects carrying an {@code id}/{@code customPropertyValueId}.
+     */
     public static void assertCustomPropertiesMatch(Response response, List<String> expectedPropertyValues) {
-        // Implementation would extract custom properties from response and compare with expected
+        JsonNode values = ROW.node(response).path("customPropertyValues");
+        Assert.assertTrue(values.isArray(), "Response row has no customPropertyValues array");
+
+        Set<String> actual = new HashSet<>();
+        for (JsonNode value : values) {
+            JsonNode id = value.isObject() ? firstPresent(value, "id", "customPropertyValueId", "value") : value;
+            actual.add(id.asText().toLowerCase(Locale.ROOT));
+        }
+        Set<String> expected = new HashSet<>();
+        expectedPropertyValues.forEach(value -> expected.add(value.toLowerCase(Locale.ROOT)));
+
+        Set<String> missing = new TreeSet<>(expected);
+        missing.removeAll(actual);
+        Set<String> unexpected = new TreeSet<>(actual);
+        unexpected.removeAll(expected);
+        Assert.assertTrue(missing.isEmpty() && unexpected.isEmpty(),
+                "Custom property values mismatch. Missing: " + missing + ", unexpected: " + unexpected);
     }
 
+    /**
+     * Fails listing every mandatory property (code, nameEn, titleEn, titleAr) that is null or blank.
+     */
     public static void assertMandatoryFieldsPresent(Object request) {
-        // Implementation would verify mandatory fields are present and not empty
-        // For your entities: code, nameEn, titleEn, titleAr
+        PropertyAccessors accessors = PropertyAccessors.of(request.getClass());
+        List<String> missing = new ArrayList<>();
+        for (String field : MANDATORY_FIELDS) {
+            Object value = accessors.get(field).read(request);
+            if (value == null || value.toString().isBlank()) {
+                missing.add(field);
+            }
+        }
+        Assert.assertTrue(missing.isEmpty(), "Mandatory fields missing or empty: " + missing);
+    }
+
+    private static boolean valueMatches(Object expected, JsonNode actual) {
+        if (expected instanceof Number number) {
+            BigDecimal actualNumber = numericValue(actual);
+            return actualNumber != null && new BigDecimal(number.toString()).compareTo(actualNumber) == 0;
+        }
+        if (expected instanceof Boolean flag) {
+            return actual.isBoolean() ? actual.booleanValue() == flag : actual.asText().equalsIgnoreCase(flag.toString());
+        }
+        String expectedText = expected.toString();
+        String actualText = actual.asText();
+        if (expectedText.equals(actualText)) {
+            return true;
+        }
+        // SQL Server returns GUIDs in upper case
+        if (UUID_PATTERN.matcher(expectedText).matches()) {
+            return expectedText.equalsIgnoreCase(actualText);
+        }
+        // A date sent as yyyy-MM-dd comes back as a date-time
+        return DATE_PATTERN.matcher(expectedText).matches() && actualText.startsWith(expectedText);
+    }
+
+    private static BigDecimal numericValue(JsonNode node) {
+        if (node.isNumber()) {
+            return node.decimalValue();
+        }
+        if (!node.isTextual()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(node.asText());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static JsonNode firstPresent(JsonNode node, String... fieldNames) {
+        for (String fieldName : fieldNames) {
+            if (node.hasNonNull(fieldName)) {
+                return node.get(fieldName);
+            }
+        }
+        return node;
     }
-}
\ No newline at end of file
+}
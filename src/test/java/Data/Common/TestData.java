@@ -1,6 +1,5 @@
 package Data.Common;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 
@@ -10,7 +9,6 @@ public class TestData<T extends BaseEntityData> {
     private String description;
       // Add this field
     private T data;
-    @JsonIgnore
     private List<String> tags;
     // Getters & Setters
     public String getTestCaseName() { return testCaseName; }
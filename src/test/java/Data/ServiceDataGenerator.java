@@ -0,0 +1,487 @@
+package Data;
+
+import Base.TagExpression;
+import Data.Common.TestData;
+import Utils.ConfigReaderWriter;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic generator of {@link ServiceData} payloads for volume tests.
+ * <p>
+ * Every payload is a pure function of {@code (seed, index)}: the same index always yields the same payload,
+ * in any order and on any thread or JVM. Unique fields embed the index and a tag derived from the seed, so a
+ * key space split into disjoint {@link Shard}s never produces duplicates. Codes, names and titles carry the
+ * whole seed, so runs with different seeds never share them; abbreviations only have room for its low 24 bits.
+ * Valid payloads respect the limits checked by the API (100 chars for codes, names and titles, 25 for
+ * abbreviations) and the English/Arabic script rules; a configurable share of payloads carries exactly one
+ * {@link Violation} instead.
+ * <p>
+ * Payloads are written straight to a {@link JsonGenerator} from per-thread character buffers, without building
+ * {@code ServiceData} objects. To write a test data file for {@code -Pbulk-test}:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.mainClass=Data.ServiceDataGenerator -Dexec.classpathScope=test \
+ *     -Dexec.args="target/generated/services.json 1000000"
+ * </pre>
+ */
+public final class ServiceDataGenerator {
+
+    /** Longest code, name or title the API accepts. */
+    public static final int MAX_TEXT_LENGTH = 100;
+    /** Longest abbreviation the API accepts. */
+    public static final int MAX_ABBREVIATION_LENGTH = 25;
+
+    // Lookup ids known to exist in the test database (same as the checked-in test data)
+    private static final String GROUP_ID = "04ee423e-f36b-1410-841a-0047d38b2221";
+    private static final String SPECIALTY_ID = "10ee423e-f36b-1410-841a-0047d38b2221";
+    private static final String TYPE_ID = "1cee423e-f36b-1410-841a-0047d38b2221";
+    private static final String CUSTOM_PROPERTY_VALUE_ID = "c3ee423e-f36b-1410-841a-0047d38b2221";
+
+    private static final String[] ENGLISH_WORDS = {
+            "Cardiac", "Dental", "Renal", "Blood", "Bone", "Skin", "Liver", "Lung", "Vision", "Hearing",
+            "Screening", "Therapy", "Imaging", "Consultation", "Surgery", "Assessment", "Panel", "Review"
+    };
+    private static final String[] ARABIC_WORDS = {
+            "قلب", "أسنان", "كلى", "دم", "عظام", "جلد", "كبد", "رئة", "نظر", "سمع",
+            "فحص", "علاج", "أشعة", "استشارة", "جراحة", "تقييم", "تحليل", "مراجعة"
+    };
+    // Digits of the Arabic-letter encoding of an index, so Arabic fields stay unique and Arabic-only
+    private static final char[] ARABIC_DIGITS =
+            "ابتثجحخدذرزسشصضطظعغفقكلمنهوي".toCharArray();
+    private static final char[] BASE36_DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    // Seed bits in abbreviations; five digits hold 24 bits in base 28 and base 36, keeping them within 25 characters
+    private static final long ABBREVIATION_TAG_MASK = 0xFFFFFFL;
+    private static final int ABBREVIATION_TAG_WIDTH = 5;
+    private static final Violation[] VIOLATIONS = Violation.values();
+
+    private static final JsonFactory factory = new JsonFactory();
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    // Reused text and byte buffers; generation never shares them between threads
+    private static final ThreadLocal<TextBuffer> textBuffers = ThreadLocal.withInitial(TextBuffer::new);
+    private static final ThreadLocal<ByteArrayBuilder> byteBuffers = ThreadLocal.withInitial(ByteArrayBuilder::new);
+
+    private final long seed;
+    private final double invalidRatio;
+    // The seed as base 36 text for codes and English fields (Arabic fields encode the seed itself in Arabic letters)
+    private final String runTag;
+    // Low seed bits written at a fixed width in abbreviations
+    private final long abbreviationTag;
+    private final LocalDate effectiveFrom;
+
+    /**
+     * @param seed         determines every generated value; also tags the unique fields so runs with different
+     *                     seeds do not collide
+     * @param invalidRatio share of payloads (0..1) that carry one violation
+     */
+    public ServiceDataGenerator(long seed, double invalidRatio) {
+        this(seed, invalidRatio, LocalDate.now());
+    }
+
+    public ServiceDataGenerator(long seed, double invalidRatio, LocalDate effectiveFrom) {
+        if (invalidRatio < 0 || invalidRatio > 1) {
+            throw new IllegalArgumentException("invalidRatio must be between 0 and 1: " + invalidRatio);
+        }
+        this.seed = seed;
+        this.invalidRatio = invalidRatio;
+        this.runTag = Long.toUnsignedString(seed, 36).toUpperCase(Locale.ROOT);
+        this.abbreviationTag = seed & ABBREVIATION_TAG_MASK;
+        this.effectiveFrom = effectiveFrom;
+    }
+
+    /**
+     * The violation carried by the payload at {@code index}, or null when it is valid.
+     */
+    public Violation violationAt(long index) {
+        return violation(random(index));
+    }
+
+    /**
+     * A random (version 4 layout) id for the entity at {@code index}, also a pure function of {@code (seed, index)};
+     * used when rows are seeded straight into the database.
+     */
+    public UUID idAt(long index) {
+        SplittableRandom random = new SplittableRandom(~seed ^ (index * 0x9E3779B97F4A7C15L));
+        long mostSignificant = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSignificant = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Writes the payload at {@code index} as a JSON object.
+     */
+    public void writeServiceData(long index, JsonGenerator gen) throws IOException {
+        SplittableRandom random = random(index);
+        Violation violation = violation(random);
+        TextBuffer text = textBuffers.get();
+
+        gen.writeStartObject();
+        if (violation != Violation.MISSING_CODE) {
+            text.clear().append("GEN-").append(runTag).append('-').appendBase36(index);
+            writeText(gen, "code", text, violation == Violation.CODE_TOO_LONG ? MAX_TEXT_LENGTH + 1 : 0);
+        }
+        text.clear().appendWords(ENGLISH_WORDS, random, 2).append(' ').append(runTag).append(' ').appendBase36(index);
+        if (violation == Violation.NAME_EN_NOT_ENGLISH) {
+            text.append(' ').append(ARABIC_WORDS[0]);
+        }
+        writeText(gen, "nameEn", text, violation == Violation.NAME_EN_TOO_LONG ? MAX_TEXT_LENGTH + 1 : 0);
+
+        text.clear().appendWords(ARABIC_WORDS, random, 2).append(' ').appendArabicDigits(seed)
+                .append(' ').appendArabicDigits(index);
+        if (violation == Violation.NAME_AR_NOT_ARABIC) {
+            text.append(' ').append(ENGLISH_WORDS[0]);
+        }
+        writeText(gen, "nameAr", text, violation == Violation.NAME_AR_TOO_LONG ? MAX_TEXT_LENGTH + 1 : 0);
+
+        if (violation != Violation.MISSING_TITLE_EN) {
+            text.clear().append("Title ").appendWords(ENGLISH_WORDS, random, 1).append(' ').append(runTag)
+                    .append(' ').appendBase36(index);
+            gen.writeFieldName("titleEn");
+            text.write(gen);
+        }
+        text.clear().append("عنوان ").appendWords(ARABIC_WORDS, random, 1).append(' ').appendArabicDigits(seed)
+                .append(' ').appendArabicDigits(index);
+        if (violation == Violation.TITLE_AR_NOT_ARABIC) {
+            text.append(' ').append(ENGLISH_WORDS[1]);
+        }
+        gen.writeFieldName("titleAr");
+        text.write(gen);
+
+        // Abbreviations have no room for separators, so the tag is written at a fixed width before the index
+        text.clear().append('A').appendBase36(abbreviationTag, ABBREVIATION_TAG_WIDTH).appendBase36(index);
+        writeText(gen, "abbreviationEn", text,
+                violation == Violation.ABBREVIATION_EN_TOO_LONG ? MAX_ABBREVIATION_LENGTH + 1 : 0);
+        text.clear().append("خ").appendArabicDigits(abbreviationTag, ABBREVIATION_TAG_WIDTH).appendArabicDigits(index);
+        writeText(gen, "abbreviationAr", text,
+                violation == Violation.ABBREVIATION_AR_TOO_LONG ? MAX_ABBREVIATION_LENGTH + 1 : 0);
+
+        gen.writeStringField("groupId", GROUP_ID);
+        gen.writeStringField("specialtyId", SPECIALTY_ID);
+        gen.writeStringField("typeId", TYPE_ID);
+        gen.writeNumberField("statusId", 1);
+        // Whole cents so the stored value compares equal to the request
+        double cost = random.nextInt(1_000_000) / 100.0;
+        gen.writeNumberField("referenceAverageCost", violation == Violation.NEGATIVE_COST ? -1 - cost : cost);
+        LocalDate effectiveDate = violation == Violation.EFFECTIVE_DATE_IN_PAST
+                ? effectiveFrom.minusDays(1 + random.nextInt(365))
+                : effectiveFrom.plusDays(random.nextInt(365));
+        gen.writeStringField("effectiveDate", effectiveDate.toString());
+        gen.writeArrayFieldStart("customPropertyValues");
+        gen.writeString(CUSTOM_PROPERTY_VALUE_ID);
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    /**
+     * Returns the payload at {@code index} as UTF-8 JSON, ready to send as a request body.
+     */
+    public byte[] payload(long index) {
+        ByteArrayBuilder bytes = byteBuffers.get();
+        bytes.reset();
+        try (JsonGenerator gen = factory.createGenerator(bytes)) {
+            writeServiceData(index, gen);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to generate service payload #" + index, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the payload at {@code index} as a {@link ServiceData}, for callers that need the object.
+     */
+    public ServiceData serviceData(long index) {
+        try {
+            return mapper.readValue(payload(index), ServiceData.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read generated service payload #" + index, e);
+        }
+    }
+
+    /**
+     * Returns the payload at {@code index} wrapped as a test case, tagged {@code generated} and, when invalid,
+     * {@code negative}, {@code validation} and {@code violation:<name>}.
+     */
+    public TestData<ServiceData> testCase(long index) {
+        TestData<ServiceData> testCase = new TestData<>();
+        Violation violation = violationAt(index);
+        testCase.setTestCaseName(testCaseName(index, violation));
+        testCase.setDescription(description(violation));
+        testCase.setTags(violation == null
+                ? List.of("generated")
+                : List.of("generated", "negative", "validation", violation.tag()));
+        testCase.setData(serviceData(index));
+        return testCase;
+    }
+
+    /**
+     * Streams the test cases of {@code shard} into {@code file} as a JSON array readable by
+     * {@code TestDataLoader.streamTestCases}. Memory use does not depend on the shard size.
+     */
+    public void writeTestDataFile(Path file, Shard shard) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+             JsonGenerator gen = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartArray();
+            for (long index = shard.fromIndex(); index < shard.toIndex(); index++) {
+                Violation violation = violationAt(index);
+                gen.writeStartObject();
+                gen.writeStringField("testCaseName", testCaseName(index, violation));
+                gen.writeStringField("description", description(violation));
+                gen.writeArrayFieldStart("tags");
+                gen.writeString("generated");
+                if (violation != null) {
+                    gen.writeString("negative");
+                    gen.writeString("validation");
+                    gen.writeString(violation.tag());
+                }
+                gen.writeEndArray();
+                gen.writeFieldName("data");
+                writeServiceData(index, gen);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes a test data file. Arguments: {@code <file> <count>}; optional settings {@code generator.seed},
+     * {@code generator.invalid.ratio} and {@code generator.shard} (e.g. {@code 2/8} for the third of eight
+     * shards of {@code count} cases).
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ServiceDataGenerator <file> <count>");
+            System.exit(1);
+        }
+        Path file = Paths.get(args[0]);
+        long count = Long.parseLong(args[1]);
+        long seed = Long.parseLong(ConfigReaderWriter.getPropKey("generator.seed", "1"));
+        double invalidRatio = Double.parseDouble(ConfigReaderWriter.getPropKey("generator.invalid.ratio", "0.1"));
+        String[] shardSpec = ConfigReaderWriter.getPropKey("generator.shard", "0/1").split("/");
+        Shard shard = Shard.of(count, Integer.parseInt(shardSpec[0].trim()), Integer.parseInt(shardSpec[1].trim()));
+
+        long start = System.nanoTime();
+        new ServiceDataGenerator(seed, invalidRatio).writeTestDataFile(file, shard);
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.printf("Wrote %d test cases [%d, %d) to %s in %d ms (%d/s)%n", shard.size(),
+                shard.fromIndex(), shard.toIndex(), file, millis, shard.size() * 1000 / millis);
+    }
+
+    // Independent stream per index so payloads do not depend on generation order
+    private SplittableRandom random(long index) {
+        return new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+    }
+
+    private Violation violation(SplittableRandom random) {
+        // Always draw both values so valid payloads do not change with the ratio
+        boolean invalid = random.nextDouble() < invalidRatio;
+        Violation violation = VIOLATIONS[random.nextInt(VIOLATIONS.length)];
+        return invalid ? violation : null;
+    }
+
+    private static String testCaseName(long index, Violation violation) {
+        return "gen-" + index + (violation == null ? "" : "-" + violation.tag().substring("violation:".length()));
+    }
+
+    private static String description(Violation violation) {
+        return violation == null ? "Generated valid service" : "Generated service with " + violation.description;
+    }
+
+    // Writes the buffer, padded with its own script up to paddedLength when that is set
+    private static void writeText(JsonGenerator gen, String field, TextBuffer text, int paddedLength) throws IOException {
+        if (paddedLength > 0) {
+            text.padTo(paddedLength);
+        }
+        gen.writeFieldName(field);
+        text.write(gen);
+    }
+
+    /**
+     * The single rule an invalid payload breaks; each maps to one column of the validation errors.
+     */
+    public enum Violation {
+        MISSING_CODE("Code", "no code"),
+        CODE_TOO_LONG("Code", "a code longer than 100 characters"),
+        NAME_EN_TOO_LONG("NameEn", "an English name longer than 100 characters"),
+        NAME_EN_NOT_ENGLISH("NameEn", "Arabic characters in the English name"),
+        NAME_AR_TOO_LONG("NameAr", "an Arabic name longer than 100 characters"),
+        NAME_AR_NOT_ARABIC("NameAr", "English characters in the Arabic name"),
+        MISSING_TITLE_EN("TitleEn", "no English title"),
+        TITLE_AR_NOT_ARABIC("TitleAr", "English characters in the Arabic title"),
+        ABBREVIATION_EN_TOO_LONG("AbbreviationEn", "an English abbreviation longer than 25 characters"),
+        ABBREVIATION_AR_TOO_LONG("AbbreviationAr", "an Arabic abbreviation longer than 25 characters"),
+        NEGATIVE_COST("ReferenceAverageCost", "a negative reference average cost"),
+        EFFECTIVE_DATE_IN_PAST("EffectiveDate", "an effective date in the past");
+
+        private final String column;
+        private final String description;
+
+        Violation(String column, String description) {
+            this.column = column;
+            this.description = description;
+        }
+
+        /** Column expected in the validation errors. */
+        public String getColumn() {
+            return column;
+        }
+
+        public String tag() {
+            return "violation:" + name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+        /** The violation named by a {@link #tag()} among the given tags, or null for a valid case. */
+        public static Violation fromTags(Collection<String> tags) {
+            if (tags != null) {
+                for (Violation violation : values()) {
+                    if (TagExpression.hasTag(tags, violation.tag())) {
+                        return violation;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Contiguous, non-overlapping slice {@code [fromIndex, toIndex)} of the key space.
+     */
+    public record Shard(long fromIndex, long toIndex) {
+
+        /**
+         * Splits {@code count} indexes into {@code shardCount} near-equal slices and returns slice {@code shardIndex}.
+         */
+        public static Shard of(long count, int shardIndex, int shardCount) {
+            if (shardCount <= 0 || shardIndex < 0 || shardIndex >= shardCount) {
+                throw new IllegalArgumentException("Invalid shard " + shardIndex + "/" + shardCount);
+            }
+            long base = count / shardCount;
+            long remainder = count % shardCount;
+            long from = shardIndex * base + Math.min(shardIndex, remainder);
+            return new Shard(from, from + base + (shardIndex < remainder ? 1 : 0));
+        }
+
+        public long size() {
+            return toIndex - fromIndex;
+        }
+    }
+
+    // Growable char buffer written to the generator without creating Strings
+    private static final class TextBuffer {
+        private char[] chars = new char[128];
+        private int length;
+
+        TextBuffer clear() {
+            length = 0;
+            return this;
+        }
+
+        TextBuffer append(char c) {
+            ensureCapacity(length + 1);
+            chars[length++] = c;
+            return this;
+        }
+
+        TextBuffer append(String s) {
+            ensureCapacity(length + s.length());
+            s.getChars(0, s.length(), chars, length);
+            length += s.length();
+            return this;
+        }
+
+        TextBuffer appendWords(String[] words, SplittableRandom random, int count) {
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    append(' ');
+                }
+                append(words[random.nextInt(words.length)]);
+            }
+            return this;
+        }
+
+        TextBuffer appendBase36(long value) {
+            return appendDigits(value, BASE36_DIGITS);
+        }
+
+        TextBuffer appendArabicDigits(long value) {
+            return appendDigits(value, ARABIC_DIGITS);
+        }
+
+        TextBuffer appendBase36(long value, int width) {
+            return appendDigits(value, BASE36_DIGITS, width);
+        }
+
+        TextBuffer appendArabicDigits(long value, int width) {
+            return appendDigits(value, ARABIC_DIGITS, width);
+        }
+
+        // Padded with the zero digit to at least width digits
+        private TextBuffer appendDigits(long value, char[] digits, int width) {
+            int count = 1;
+            long rest = Long.divideUnsigned(value, digits.length);
+            while (rest != 0) {
+                count++;
+                rest = Long.divideUnsigned(rest, digits.length);
+            }
+            for (int i = count; i < width; i++) {
+                append(digits[0]);
+            }
+            return appendDigits(value, digits);
+        }
+
+        // Most significant digit first, reading the value as unsigned (a seed may be negative); at most 14 digits
+        // in base 28 and 13 in base 36
+        private TextBuffer appendDigits(long value, char[] digits) {
+            int start = length;
+            do {
+                append(digits[(int) Long.remainderUnsigned(value, digits.length)]);
+                value = Long.divideUnsigned(value, digits.length);
+            } while (value != 0);
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                char swap = chars[i];
+                chars[i] = chars[j];
+                chars[j] = swap;
+            }
+            return this;
+        }
+
+        // Repeats the first character (of the field's script) so only the length rule is broken
+        void padTo(int target) {
+            char fill = chars[0];
+            while (length < target) {
+                append(fill);
+            }
+        }
+
+        void write(JsonGenerator gen) throws IOException {
+            gen.writeString(chars, 0, length);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(capacity, chars.length * 2));
+            }
+        }
+    }
+}
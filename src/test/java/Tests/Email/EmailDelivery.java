@@ -0,0 +1,218 @@
+package Tests.Email;
+
+import Utils.EmailDeliveryQueue;
+import io.qameta.allure.*;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * Checks {@link EmailDeliveryQueue} against an in-process SMTP stand-in, so neither a mail server nor the
+ * database is needed: {@code mvn test -Pemail-test}.
+ */
+@Owner("Abdullah")
+@Epic("Reporting")
+@Feature("Report Email Delivery")
+@Listeners({io.qameta.allure.testng.AllureTestNg.class})
+public class EmailDelivery {
+
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private SmtpStandIn smtp;
+    private EmailDeliveryQueue queue;
+
+    @BeforeMethod
+    public void startStandIn() throws IOException {
+        smtp = SmtpStandIn.start();
+        queue = new EmailDeliveryQueue(smtp::session);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStandIn() throws IOException {
+        queue.shutdown(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        smtp.close();
+    }
+
+    @Test(description = "Queued messages are sent over one SMTP connection")
+    @Severity(SeverityLevel.NORMAL)
+    public void deliversQueuedMessagesOverOneConnection() throws Exception {
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            results.add(queue.submit(message("Report " + i)));
+        }
+
+        assertTrue(queue.awaitDelivery(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Messages not delivered in time");
+        for (CompletableFuture<Void> result : results) {
+            assertFalse(result.isCompletedExceptionally(), "Delivery failed");
+        }
+        assertEquals(smtp.subjects(), List.of("Report 1", "Report 2", "Report 3", "Report 4", "Report 5"));
+        assertEquals(smtp.connections(), 1, "Messages should share one connection");
+    }
+
+    @Test(description = "A refused connection is retried on a new one")
+    @Severity(SeverityLevel.NORMAL)
+    public void retriesAfterRefusedConnection() throws Exception {
+        smtp.refuseConnections(1);
+
+        queue.submit(message("Retried report")).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(smtp.subjects(), List.of("Retried report"));
+        assertEquals(smtp.connections(), 2, "Expected the refused connection and one retry");
+    }
+
+    @Test(description = "Shutdown delivers what is queued and rejects new messages")
+    @Severity(SeverityLevel.NORMAL)
+    public void shutdownDrainsQueuedMessages() throws Exception {
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            results.add(queue.submit(message("Queued report " + i)));
+        }
+
+        queue.shutdown(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        for (CompletableFuture<Void> result : results) {
+            assertTrue(result.isDone() && !result.isCompletedExceptionally(), "Queued message not delivered");
+        }
+        assertEquals(smtp.subjects().size(), 3);
+        CompletableFuture<Void> late = queue.submit(message("Late report"));
+        ExecutionException rejected = expectThrows(ExecutionException.class, late::get);
+        assertTrue(rejected.getCause() instanceof IllegalStateException, "Unexpected failure: " + rejected.getCause());
+    }
+
+    private Message message(String subject) throws Exception {
+        Message message = new MimeMessage(smtp.session());
+        message.setFrom(new InternetAddress("reports@example.com"));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse("team@example.com"));
+        message.setSubject(subject);
+        message.setContent("<p>" + subject + "</p>", "text/html; charset=utf-8");
+        return message;
+    }
+
+    /**
+     * Minimal SMTP server on a free local port that accepts every message and records its subject. The first
+     * {@link #refuseConnections(int) n} connections are turned away with a 421 greeting.
+     */
+    private static final class SmtpStandIn implements Closeable {
+        private final ServerSocket server;
+        private final List<String> subjects = new CopyOnWriteArrayList<>();
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger refusalsLeft = new AtomicInteger();
+
+        private SmtpStandIn(ServerSocket server) {
+            this.server = server;
+        }
+
+        static SmtpStandIn start() throws IOException {
+            SmtpStandIn standIn = new SmtpStandIn(new ServerSocket(0));
+            Thread.ofVirtual().name("smtp-stand-in").start(standIn::acceptLoop);
+            return standIn;
+        }
+
+        Session session() {
+            Properties props = new Properties();
+            props.put("mail.smtp.host", "localhost");
+            props.put("mail.smtp.port", String.valueOf(server.getLocalPort()));
+            props.put("mail.smtp.auth", "false");
+            props.put("mail.smtp.starttls.enable", "false");
+            props.put("mail.smtp.connectiontimeout", "5000");
+            props.put("mail.smtp.timeout", "5000");
+            return Session.getInstance(props);
+        }
+
+        void refuseConnections(int count) {
+            refusalsLeft.set(count);
+        }
+
+        List<String> subjects() {
+            return List.copyOf(subjects);
+        }
+
+        int connections() {
+            return connections.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+
+        private void acceptLoop() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    connections.incrementAndGet();
+                    Thread.ofVirtual().start(() -> converse(socket));
+                } catch (IOException e) {
+                    // Closed by close()
+                    return;
+                }
+            }
+        }
+
+        private void converse(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+                if (refusalsLeft.getAndDecrement() > 0) {
+                    reply(out, "421 Service not available");
+                    return;
+                }
+                reply(out, "220 stand-in ready");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                    switch (command) {
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            readMessage(in);
+                            reply(out, "250 OK");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException ignored) {
+                // The client went away; nothing to record
+            }
+        }
+
+        private void readMessage(BufferedReader in) throws IOException {
+            String subject = null;
+            String line;
+            while ((line = in.readLine()) != null && !line.equals(".")) {
+                if (subject == null && line.startsWith("Subject: ")) {
+                    subject = line.substring("Subject: ".length());
+                }
+            }
+            subjects.add(subject);
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+    }
+}
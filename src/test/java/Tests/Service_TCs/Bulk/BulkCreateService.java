@@ -0,0 +1,151 @@
+package Tests.Service_TCs.Bulk;
+
+import Base.EntityQuery;
+import Base.ResponseDecoder;
+import Base.TagExpression;
+import Base.TestBase;
+import Base.TestDataLoader;
+import Base.TestDataStream;
+import Base.ValidationUtils;
+import Data.Common.TestData;
+import Data.ServiceData;
+import Data.ServiceDataGenerator.Violation;
+import Utils.ConfigReaderWriter;
+import Validators.ValidationErrorIndex;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Pushes a (possibly very large) JSON test data file through /Service/Insert without loading it into memory.
+ * <p>
+ * Run with {@code mvn test -Pbulk-test -Dbulk.data.file=target/generated/services.json}. With
+ * {@code -Dbulk.parallelism=N} (N > 1) the file is processed by {@code createServicesInParallel} with at most
+ * N requests in flight instead of one TestNG invocation per test case; add {@code -Dbulk.verify.db=true} to read
+ * every created service back from the database afterwards.
+ */
+@Owner("Abdullah")
+@Epic("Service Management")
+@Story("1.1")
+@Feature("Create Service - Bulk")
+@Listeners({io.qameta.allure.testng.AllureTestNg.class})
+public class BulkCreateService extends TestBase {
+
+    private static final String DEFAULT_DATA_FILE = "src/test/resources/TestData/Service_TD/EnhancedServiceTestData.json";
+    private static final String INSERT_ENDPOINT = "/Service/Insert";
+    private static final String NEGATIVE_TAG = "negative";
+
+    private final String dataFile = ConfigReaderWriter.getPropKey("bulk.data.file", DEFAULT_DATA_FILE);
+    private final int parallelism = ConfigReaderWriter.getIntPropKey("bulk.parallelism", 1);
+    private final boolean verifyDatabase = ConfigReaderWriter.getBooleanPropKey("bulk.verify.db", false);
+
+    @DataProvider(name = "serviceStream")
+    public Iterator<Object[]> serviceStream() throws Exception {
+        if (parallelism > 1) {
+            return Collections.emptyIterator();
+        }
+        return TestDataLoader.streamTestCases("", dataFile, ServiceData.class).asDataProvider();
+    }
+
+    @Test(dataProvider = "serviceStream", description = "Create service from streamed test data")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Each streamed test case is inserted and its response checked against the request")
+    public void createServiceFromStream(TestData<ServiceData> testCase) {
+        Response response = given()
+                .spec(getRequestSpecification())
+                .body(testCase.getData())
+                .when()
+                .post(INSERT_ENDPOINT);
+
+        verifyInsertResponse(testCase, response);
+    }
+
+    @Test(description = "Create services from streamed test data in parallel")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Test cases are streamed with a bounded number of inserts in flight")
+    public void createServicesInParallel() throws Exception {
+        if (parallelism <= 1) {
+            throw new SkipException("Set -Dbulk.parallelism above 1 to run the parallel bulk insert");
+        }
+        RequestSpecification spec = createLoadRequestSpecification();
+        LongAdder inserted = new LongAdder();
+        Map<String, ServiceData> created = new ConcurrentHashMap<>();
+
+        long total = TestDataStream.forEachParallel(Paths.get(dataFile), ServiceData.class, parallelism, testCase -> {
+            Response response = given()
+                    .spec(spec)
+                    .body(testCase.getData())
+                    .when()
+                    .post(INSERT_ENDPOINT);
+            verifyInsertResponse(testCase, response);
+            if (response.getStatusCode() == 200) {
+                inserted.increment();
+                if (verifyDatabase) {
+                    String rowId = ResponseDecoder.ROW_ID.getString(response);
+                    Assert.assertNotNull(rowId, testCase.getTestCaseName() + ": insert response has no data.row.id - "
+                            + response.asString());
+                    created.put(rowId, testCase.getData());
+                }
+            }
+        });
+        System.out.printf("Bulk insert processed %d test cases, %d created%n", total, inserted.sum());
+        if (verifyDatabase) {
+            verifyPersisted(created);
+        }
+    }
+
+    // Reads every created service back in batched lookups and compares the stored names with the request
+    private void verifyPersisted(Map<String, ServiceData> created) throws SQLException {
+        Map<String, ServiceData> stored = EntityQuery.SERVICES.findByIds(created.keySet());
+        List<String> mismatches = new ArrayList<>();
+        created.forEach((id, expected) -> {
+            ServiceData actual = stored.get(id.toLowerCase(Locale.ROOT));
+            if (actual == null) {
+                mismatches.add(id + ": not found in " + EntityQuery.SERVICES.getTable());
+            } else if (!Objects.equals(expected.getCode(), actual.getCode())
+                    || !Objects.equals(expected.getNameEn(), actual.getNameEn())
+                    || !Objects.equals(expected.getTitleEn(), actual.getTitleEn())) {
+                mismatches.add(id + ": stored " + actual.getCode() + "/" + actual.getNameEn()
+                        + ", sent " + expected.getCode() + "/" + expected.getNameEn());
+            }
+        });
+        Assert.assertTrue(mismatches.isEmpty(), mismatches.size() + " of " + created.size()
+                + " created services differ in the database, e.g. " + mismatches.subList(0, Math.min(20, mismatches.size())));
+    }
+
+    // The case decides the outcome: a valid payload must be stored as sent, an invalid one (tagged negative, or with
+    // the generator's violation tag) must be rejected, with an error on the violated column when it is known
+    private void verifyInsertResponse(TestData<ServiceData> testCase, Response response) {
+        Violation violation = Violation.fromTags(testCase.getTags());
+        boolean expectRejection = violation != null || TagExpression.hasTag(testCase.getTags(), NEGATIVE_TAG);
+        int status = response.getStatusCode();
+        if (!expectRejection) {
+            Assert.assertEquals(status, 200, testCase.getTestCaseName() + ": valid payload was not accepted - "
+                    + response.asString());
+            ValidationUtils.assertValidResponseStructure(response);
+            ValidationUtils.assertFieldValuesMatchRequest(response, testCase.getData());
+            return;
+        }
+        Assert.assertEquals(status, 400, testCase.getTestCaseName() + ": invalid payload was not rejected - "
+                + response.asString());
+        ValidationUtils.assertInvalidResponseStructure(response);
+        if (violation != null) {
+            ValidationErrorIndex errors = ResponseDecoder.errorIndex(response);
+            Assert.assertTrue(errors.hasErrorFor(violation.getColumn()), testCase.getTestCaseName()
+                    + ": expected an error on " + violation.getColumn() + " but got: " + errors.describe());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package Tests.Service_TCs.Create;
 
+import Base.ResponseDecoder;
 import Base.TestBase;
 import Base.ValidationUtils;
 import Data.ServiceData;
@@ -40,7 +41,7 @@ public class CreateService extends TestBase {
         TestData<ServiceData> testData = loadTestData("01.Check adding a service with only mandatory attributes only");
 
         Response response = given()
-                .spec(requestSpecification)
+                .spec(getRequestSpecification())
                 .body(testData.getData())
                 .when()
                 .post("/Service/Insert");
@@ -56,7 +57,7 @@ public class CreateService extends TestBase {
         TestData<ServiceData> testData = loadTestData("02.Check adding a service with mandatory and optional attributes and effective data in future");
 
         Response response = given()
-                .spec(requestSpecification)
+                .spec(getRequestSpecification())
                 .body(testData.getData())
                 .when()
                 .post("/Service/Insert");
@@ -64,7 +65,7 @@ public class CreateService extends TestBase {
         assertPositiveResponse(response, ServiceData.class);
         verifyResponseMatchesRequest(testData.getData(), response);
 
-        String extractedServiceId = response.jsonPath().getString("data.row.id");
+        String extractedServiceId = ResponseDecoder.ROW_ID.getString(response);
         ConfigReaderWriter.saveTestData("createdServiceId", extractedServiceId);
         System.out.println("Saved service ID: " + extractedServiceId);
     }
@@ -75,12 +76,12 @@ public class CreateService extends TestBase {
     public void preventDuplicateServiceAttributes() throws Exception {
 //        // First create valid service
 //        TestData<ServiceData> validData = loadTestData("02.Check adding a service with mandatory and optional attributes and effective data in future");
-//        given().spec(requestSpecification).body(validData.getData()).post("/Service/Insert");
+//        given().spec(getRequestSpecification()).body(validData.getData()).post("/Service/Insert");
 
         // Then attempt duplicate
         TestData<ServiceData> duplicateData = loadTestData("03.Check sending request with a used fields before");
         Response response = given()
-                .spec(requestSpecification)
+                .spec(getRequestSpecification())
                 .body(duplicateData.getData())
                 .when()
                 .post("/Service/Insert");
@@ -97,7 +98,7 @@ public class CreateService extends TestBase {
         TestData<ServiceData> testData = loadTestData("04. Missing mandatory fields (negative)");
 
         Response response = given()
-                .spec(requestSpecification)
+                .spec(getRequestSpecification())
                 .body(testData.getData())
                 .when()
                 .post("/Service/Insert");
@@ -118,7 +119,7 @@ public class CreateService extends TestBase {
         TestData<ServiceData> testData = loadTestData("05.Check exceeding max length for fields");
 
         Response response = given()
-                .spec(requestSpecification)
+                .spec(getRequestSpecification())
                 .body(testData.getData())
                 .when()
                 .post("/Service/Insert");
@@ -142,7 +143,7 @@ public class CreateService extends TestBase {
         TestData<ServiceData> testData = loadTestData("06.Check sending invalid reference cost (negative), invalid date format, custom property value, and effective date in the past.");
 
         Response response = given()
-                .spec(requestSpecification)
+                .spec(getRequestSpecification())
                 .body(testData.getData())
                 .when()
                 .post("/Service/Insert");
@@ -166,7 +167,7 @@ public class CreateService extends TestBase {
         TestData<ServiceData> testData = loadTestData("07.Check sending invalid custom property value, specialty, Group");
 
         Response response = given()
-                .spec(requestSpecification)
+                .spec(getRequestSpecification())
                 .body(testData.getData())
                 .when()
                 .post("/Service/Insert");
@@ -190,7 +191,7 @@ public class CreateService extends TestBase {
 
         // Rest of your test implementation...
         Response deleteResponse = given()
-                .spec(requestSpecification)
+                .spec(getRequestSpecification())
                 .queryParam("id", serviceId)
                 .when()
                 .delete("/Service/Delete")
@@ -210,7 +211,7 @@ public class CreateService extends TestBase {
 
         // Send request and validate
         Response response = given()
-                .spec(requestSpecification)
+                .spec(getRequestSpecification())
                 .body(requestData)
                 .when()
                 .post("/Service/Insert")
@@ -0,0 +1,51 @@
+package Tests.Service_TCs.Create;
+
+import Base.TagExpression;
+import Base.TestBase;
+import Base.TestCaseProviders;
+import Base.TestCases;
+import Base.ValidationUtils;
+import Data.Common.TestData;
+import Data.ServiceData;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Runs the Create Service scenarios selected by tag, e.g. the pre-deploy smoke gate:
+ * {@code mvn test -Psmoke} or {@code mvn test -Psmoke -Dtest.tags="regression && !negative"}.
+ * Cases tagged {@code negative} must be rejected; all others must be created as sent.
+ */
+@Owner("Abdullah")
+@Epic("Service Management")
+@Story("1.1")
+@Feature("Create Service")
+@Listeners({io.qameta.allure.testng.AllureTestNg.class})
+public class CreateServiceByTag extends TestBase {
+
+    private static final String NEGATIVE_TAG = "negative";
+
+    @Test(dataProvider = TestCaseProviders.PARALLEL, dataProviderClass = TestCaseProviders.class,
+            description = "Create service for each tagged scenario")
+    @TestCases(file = "Service_TD/EnhancedServiceTestData.json")
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Each selected scenario is inserted and checked according to its tags")
+    public void createServiceForTaggedCase(TestData<ServiceData> testCase) {
+        Response response = given()
+                .spec(getRequestSpecification())
+                .body(testCase.getData())
+                .when()
+                .post("/Service/Insert");
+
+        // Same case-insensitive comparison as the -Dtest.tags expression that selected the case
+        if (TagExpression.hasTag(testCase.getTags(), NEGATIVE_TAG)) {
+            assertNegativeResponse(response);
+        } else {
+            assertPositiveResponse(response, ServiceData.class);
+            ValidationUtils.assertFieldValuesMatchRequest(response, testCase.getData());
+        }
+    }
+}
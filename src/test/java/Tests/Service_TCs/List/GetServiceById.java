@@ -25,7 +25,7 @@ public class GetServiceById extends TestBase {
     public void get_service_by_id() {
         Response response =
                 given()
-                        .spec(requestSpecification)
+                        .spec(getRequestSpecification())
                         .body("") // You may replace this with actual payload if needed
                         .when()
                         .get("/Service/GetById")
@@ -19,7 +19,7 @@ public class ListService extends TestBase {
     public void list_service() {
         Response response =
                 given()
-                        .spec(requestSpecification)
+                        .spec(getRequestSpecification())
                         .body("{}")
                         .when()
                         .post("/Service/Get")
@@ -0,0 +1,131 @@
+package Tests.Service_TCs.Load;
+
+import Base.LoadTestHarness;
+import Base.TestBase;
+import Base.TestDataLoader;
+import Data.Common.TestData;
+import Data.ServiceData;
+import Data.ServiceDataGenerator;
+import Utils.ConfigReaderWriter;
+import Utils.FileUtils;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.qameta.allure.*;
+import io.restassured.specification.RequestSpecification;
+import org.testng.Assert;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Throughput run of the Create Service scenarios from EnhancedServiceTestData.json.
+ * <p>
+ * Run with {@code mvn test -Pload-test -Dload.users=20 -Dload.duration.seconds=60}.
+ * Optional: {@code -Dload.think.time.ms}, {@code -Dload.scenarios} (comma separated test case names)
+ * and {@code -Dload.max.error.rate} (fails the test above this fraction, default 0.01).
+ */
+@Owner("Abdullah")
+@Epic("Service Management")
+@Story("1.1")
+@Feature("Create Service - Load")
+@Listeners({io.qameta.allure.testng.AllureTestNg.class})
+public class CreateServiceLoadTest extends TestBase {
+
+    private static final String BASE_PATH = "src/test/resources/TestData/Service_TD/";
+    private static final String FILE_NAME = "EnhancedServiceTestData.json";
+    private static final String INSERT_ENDPOINT = "/Service/Insert";
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test(description = "Closed-loop load test of service creation")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("N virtual users loop over the Create Service scenarios with unique code, English name and abbreviation")
+    public void createServiceUnderLoad() throws Exception {
+        int users = ConfigReaderWriter.getIntPropKey("load.users", 10);
+        Duration duration = Duration.ofSeconds(ConfigReaderWriter.getIntPropKey("load.duration.seconds", 60));
+        Duration thinkTime = Duration.ofMillis(ConfigReaderWriter.getIntPropKey("load.think.time.ms", 0));
+        double maxErrorRate = Double.parseDouble(ConfigReaderWriter.getPropKey("load.max.error.rate", "0.01"));
+
+        List<ObjectNode> templates = loadScenarioTemplates();
+        RequestSpecification spec = createLoadRequestSpecification();
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        LoadTestHarness.LoadTestResult result = new LoadTestHarness(users, duration, thinkTime)
+                .addAction("POST " + INSERT_ENDPOINT, (user, iteration) -> given()
+                        .spec(spec)
+                        .body(uniquePayload(templates, runId, user, iteration))
+                        .when()
+                        .post(INSERT_ENDPOINT))
+                .run();
+
+        String table = result.toTable();
+        System.out.println(table);
+        Path summaryFile = result.writeTo(Paths.get(FileUtils.LOAD_RESULTS_DIR), "create-service");
+        Allure.addAttachment("Load test summary", "text/plain", table, ".txt");
+        Allure.addAttachment("Load test summary JSON", "application/json", result.toJson(), ".json");
+        System.out.println("Load test summary written to: " + summaryFile.toAbsolutePath());
+
+        for (LoadTestHarness.EndpointStats stats : result.getEndpoints()) {
+            Assert.assertTrue(result.errorRate(stats) <= maxErrorRate,
+                    String.format("Error rate for %s is %.2f%%, above the allowed %.2f%%",
+                            stats.getEndpoint(), result.errorRate(stats) * 100, maxErrorRate * 100));
+        }
+    }
+
+    private List<ObjectNode> loadScenarioTemplates() throws Exception {
+        List<TestData<ServiceData>> testCases = TestDataLoader.loadAllTestCases(BASE_PATH, FILE_NAME,
+                new TypeReference<List<TestData<ServiceData>>>() {
+                });
+
+        String selected = ConfigReaderWriter.getPropKey("load.scenarios", "");
+        Set<String> names = Arrays.stream(selected.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+
+        List<ObjectNode> templates = testCases.stream()
+                .filter(tc -> names.isEmpty() || names.contains(tc.getTestCaseName().toLowerCase()))
+                .map(tc -> (ObjectNode) mapper.valueToTree(tc.getData()))
+                .toList();
+        Assert.assertFalse(templates.isEmpty(), "No load test scenarios matched: " + selected);
+        return templates;
+    }
+
+    // Each user/iteration pair gets its own code, English name and abbreviation so scenarios never collide as duplicates
+    private byte[] uniquePayload(List<ObjectNode> templates, String runId, int user, long iteration) {
+        ObjectNode payload = templates.get((int) ((user + iteration) % templates.size())).deepCopy();
+        // Base 36 keeps the suffix short enough to leave room in a 25-character abbreviation
+        String suffix = "-" + runId + "-" + Integer.toString(user, 36) + "-" + Long.toString(iteration, 36);
+        makeUnique(payload, "code", suffix, ServiceDataGenerator.MAX_TEXT_LENGTH);
+        makeUnique(payload, "nameEn", suffix, ServiceDataGenerator.MAX_TEXT_LENGTH);
+        makeUnique(payload, "abbreviationEn", suffix, ServiceDataGenerator.MAX_ABBREVIATION_LENGTH);
+        try {
+            return mapper.writeValueAsBytes(payload);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to serialize load test payload", e);
+        }
+    }
+
+    // Appends the suffix, shortening the template value so the result stays within the field's limit. A value
+    // that is already too long (a length validation scenario) is left whole, so it still breaks the same rule.
+    private static void makeUnique(ObjectNode payload, String field, String suffix, int maxLength) {
+        if (!payload.hasNonNull(field)) {
+            return;
+        }
+        String value = payload.get(field).asText();
+        if (value.length() <= maxLength && value.length() + suffix.length() > maxLength) {
+            value = value.substring(0, Math.max(0, maxLength - suffix.length()));
+        }
+        payload.put(field, value + suffix);
+    }
+}
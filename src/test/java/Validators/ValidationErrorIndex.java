@@ -0,0 +1,116 @@
+package Validators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable view of a response's validation errors, grouped by column with pre-normalized message text.
+ * <p>
+ * Columns are matched case-insensitively. Messages are lower-cased with curly apostrophes replaced by
+ * straight ones, once when the index is built, so each lookup is a map access plus a substring check.
+ */
+public final class ValidationErrorIndex {
+
+    private static final ValidationErrorIndex EMPTY = new ValidationErrorIndex(List.of());
+
+    private final List<ValidationError> errors;
+    private final List<IndexedError> allEntries;
+    private final Map<String, List<IndexedError>> entriesByColumn;
+
+    private ValidationErrorIndex(List<ValidationError> errors) {
+        this.errors = List.copyOf(errors);
+        List<IndexedError> entries = new ArrayList<>(errors.size());
+        Map<String, List<IndexedError>> byColumn = new HashMap<>();
+        for (ValidationError error : this.errors) {
+            IndexedError entry = new IndexedError(error, normalize(error.getMessage()), normalize(error.getMessageAr()));
+            entries.add(entry);
+            byColumn.computeIfAbsent(columnKey(error.getColumn()), key -> new ArrayList<>(2)).add(entry);
+        }
+        byColumn.replaceAll((column, list) -> Collections.unmodifiableList(list));
+        this.allEntries = Collections.unmodifiableList(entries);
+        this.entriesByColumn = Map.copyOf(byColumn);
+    }
+
+    public static ValidationErrorIndex of(List<ValidationError> errors) {
+        return errors == null || errors.isEmpty() ? EMPTY : new ValidationErrorIndex(errors);
+    }
+
+    public List<ValidationError> getErrors() {
+        return errors;
+    }
+
+    public boolean isEmpty() {
+        return errors.isEmpty();
+    }
+
+    /**
+     * True when there is at least one error on {@code column}.
+     */
+    public boolean hasErrorFor(String column) {
+        return entriesByColumn.containsKey(columnKey(column));
+    }
+
+    /**
+     * True when an error on {@code column} (any column when null) has an English message containing
+     * {@code messagePart}.
+     */
+    public boolean containsMessage(String column, String messagePart) {
+        String part = normalize(messagePart);
+        for (IndexedError entry : entriesFor(column)) {
+            if (entry.message.contains(part)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True when an error on {@code column} (any column when null) has an English or Arabic message
+     * containing one of {@code messageParts}.
+     */
+    public boolean containsAnyMessage(String column, String... messageParts) {
+        List<IndexedError> entries = entriesFor(column);
+        for (String messagePart : messageParts) {
+            String part = normalize(messagePart);
+            for (IndexedError entry : entries) {
+                if (entry.message.contains(part) || entry.messageAr.contains(part)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One error per line, used in assertion failure messages.
+     */
+    public String describe() {
+        StringBuilder text = new StringBuilder();
+        for (ValidationError error : errors) {
+            if (!text.isEmpty()) {
+                text.append('\n');
+            }
+            text.append(error);
+        }
+        return text.toString();
+    }
+
+    private List<IndexedError> entriesFor(String column) {
+        return column == null ? allEntries : entriesByColumn.getOrDefault(columnKey(column), List.of());
+    }
+
+    private static String columnKey(String column) {
+        return column == null ? "" : column.toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.replace('’', '\'').toLowerCase(Locale.ROOT);
+    }
+
+    private record IndexedError(ValidationError error, String message, String messageAr) {
+    }
+}